@@ -0,0 +1,7 @@
+package com.example.common.audit;
+
+import java.time.Instant;
+
+// One audit record, stored as a JSON line in the audit segments
+public record AuditEvent(Instant at, String actor, String entityType, String entityId, String action, String summary) {
+}
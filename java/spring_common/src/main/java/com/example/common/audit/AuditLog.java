@@ -0,0 +1,263 @@
+package com.example.common.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail for entity mutations.
+ *
+ * record() captures who/what/when on the calling thread and publishes the event
+ * onto a lock-free ring buffer (after commit when a transaction is active), so
+ * the request pays for an allocation and a CAS, never for I/O. One writer
+ * thread drains the ring in batches into append-only segment files.
+ *
+ * Durability is app.audit.fsync: "batch" forces every batch to disk before the
+ * next drain; "interval" forces at most once per app.audit.fsync-interval, so a
+ * crash can lose up to that window. When the ring is full, events are dropped
+ * and counted (audit.events.dropped) rather than blocking the request.
+ */
+@Service
+public class AuditLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    // Upper bound on an idle park; publish() and stop() unpark the writer right away
+    private static final long MAX_IDLE_PARK_NANOS = Duration.ofSeconds(1).toNanos();
+
+    public enum Durability { BATCH, INTERVAL }
+
+    private final MpscRingBuffer<AuditEvent> ring;
+    private final Path dir;
+    private final long maxSegmentBytes;
+    private final int batchSize;
+    private final Durability durability;
+    private final long fsyncIntervalNanos;
+    private final ObjectMapper objectMapper;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter writeFailures;
+    private final Timer batchTimer;
+    private final AtomicLong droppedTotal = new AtomicLong();
+
+    private volatile AuditSegmentStore store;
+    private volatile boolean running;
+    private volatile Thread writer;
+    // Set by the writer before it parks, so producers only unpark a sleeping writer
+    private volatile boolean writerIdle;
+
+    public AuditLog(
+            @Value("${app.audit.dir:./data/audit}") String dir,
+            @Value("${app.audit.ring-capacity:65536}") int ringCapacity,
+            @Value("${app.audit.batch-size:512}") int batchSize,
+            @Value("${app.audit.segment-max-size:64MB}") DataSize segmentMaxSize,
+            @Value("${app.audit.fsync:batch}") String fsync,
+            @Value("${app.audit.fsync-interval:1s}") Duration fsyncInterval,
+            ObjectMapper objectMapper,
+            MeterRegistry registry) {
+        this.ring = new MpscRingBuffer<>(ringCapacity);
+        this.dir = Paths.get(dir).toAbsolutePath().normalize();
+        this.maxSegmentBytes = segmentMaxSize.toBytes();
+        this.batchSize = Math.max(1, batchSize);
+        this.durability = Durability.valueOf(fsync.trim().toUpperCase(Locale.ROOT));
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.objectMapper = objectMapper;
+
+        this.written = Counter.builder("audit.events.written").register(registry);
+        this.dropped = Counter.builder("audit.events.dropped")
+                .description("Audit events lost because the ring buffer was full").register(registry);
+        this.writeFailures = Counter.builder("audit.write.failures").register(registry);
+        this.batchTimer = Timer.builder("audit.batch.write")
+                .description("Append (and fsync in batch mode) of one drained batch").register(registry);
+        Gauge.builder("audit.buffer.depth", ring, MpscRingBuffer::size).register(registry);
+    }
+
+    /** Records a mutation by the current user. Cheap and non-blocking; see class comment. */
+    public void record(String entityType, Object entityId, String action, String summary) {
+        AuditEvent event = new AuditEvent(Instant.now(), currentActor(), entityType,
+                entityId == null ? null : String.valueOf(entityId), action, summary);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rolled-back change never happened, so it is not audited
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    public List<AuditEvent> query(AuditQuery query) throws IOException {
+        AuditSegmentStore current = store;
+        if (current == null) {
+            throw new IllegalStateException("Audit log is not running");
+        }
+        return current.query(query);
+    }
+
+    private void publish(AuditEvent event) {
+        if (ring.offer(event)) {
+            if (writerIdle) {
+                LockSupport.unpark(writer);
+            }
+        } else {
+            dropped.increment();
+            long total = droppedTotal.incrementAndGet();
+            if (Long.bitCount(total) == 1) { // 1st, 2nd, 4th, 8th... drop
+                log.warn("Audit ring buffer full ({} slots): {} events dropped so far", ring.capacity(), total);
+            }
+        }
+    }
+
+    private static String currentActor() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? "anonymous" : auth.getName();
+    }
+
+    // ---- writer thread ----
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        while (true) {
+            int n = ring.drain(batch::add, batchSize);
+            if (n > 0) {
+                dirty |= writeBatch(batch);
+                batch.clear();
+            }
+            if (dirty && (durability == Durability.BATCH || System.nanoTime() - lastForce >= fsyncIntervalNanos)) {
+                dirty = !force();
+                lastForce = System.nanoTime();
+            }
+            if (n == 0) {
+                if (!running) {
+                    break; // stopped and fully drained
+                }
+                park(dirty ? fsyncIntervalNanos - (System.nanoTime() - lastForce) : MAX_IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Sleeps until an event is published, stop() is called or the timeout passes. The
+    // flag is raised before the ring is checked again, so a publish racing with the
+    // check either is seen here or sees the flag and unparks
+    private void park(long nanos) {
+        writerIdle = true;
+        try {
+            if (ring.size() == 0 && running) {
+                LockSupport.parkNanos(this, Math.max(1, Math.min(nanos, MAX_IDLE_PARK_NANOS)));
+            }
+        } finally {
+            writerIdle = false;
+        }
+    }
+
+    // Returns true when the batch is in the page cache but not yet forced
+    private boolean writeBatch(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            store.append(batch);
+            written.increment(batch.size());
+            return true;
+        } catch (IOException | UncheckedIOException ex) {
+            writeFailures.increment();
+            log.error("Failed to append {} audit events to {}: {}", batch.size(), dir, ex.getMessage());
+            return false;
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean force() {
+        try {
+            store.force();
+            return true;
+        } catch (IOException ex) {
+            writeFailures.increment();
+            log.error("Failed to fsync audit segment in {}: {}", dir, ex.getMessage());
+            return false;
+        }
+    }
+
+    // ---- lifecycle ----
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            store = new AuditSegmentStore(dir, maxSegmentBytes, objectMapper);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open audit directory " + dir, ex);
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Audit log writing to {} (fsync={}, ring={} slots)", dir, durability, ring.capacity());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(Duration.ofSeconds(10).toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not finish draining within 10s; {} events left in memory", ring.size());
+            return;
+        }
+        try {
+            store.close();
+        } catch (IOException ex) {
+            log.error("Failed to close audit segment in {}: {}", dir, ex.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server has drained in-flight requests, so their events are written
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.common.audit;
+
+import java.time.Instant;
+
+// Filters for AuditLog.query; null fields match everything. Results are newest first.
+public record AuditQuery(String entityType, String entityId, String actor, Instant from, Instant to, int limit) {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public AuditQuery {
+        limit = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    }
+
+    boolean matches(AuditEvent event) {
+        return (entityType == null || entityType.equals(event.entityType()))
+                && (entityId == null || entityId.equals(event.entityId()))
+                && (actor == null || actor.equals(event.actor()))
+                && (from == null || !event.at().isBefore(from))
+                && (to == null || event.at().isBefore(to));
+    }
+}
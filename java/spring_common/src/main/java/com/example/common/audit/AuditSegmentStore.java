@@ -0,0 +1,156 @@
+package com.example.common.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only JSON-lines segments: audit-&lt;seq&gt;-&lt;openedAtMillis&gt;.jsonl.
+ *
+ * Only the audit writer thread appends; a segment is closed once it would grow
+ * past the size limit and is never modified again. Queries read the files
+ * directly and may run concurrently with the writer - a torn last line in the
+ * open segment is skipped.
+ */
+final class AuditSegmentStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSegmentStore.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d+)-(\\d+)\\.jsonl");
+
+    private final Path dir;
+    private final long maxSegmentBytes;
+    private final ObjectMapper objectMapper;
+
+    private FileChannel channel;
+    private long segmentBytes;
+    private long nextSequence;
+
+    AuditSegmentStore(Path dir, long maxSegmentBytes, ObjectMapper objectMapper) throws IOException {
+        this.dir = dir;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.objectMapper = objectMapper;
+        Files.createDirectories(dir);
+        this.nextSequence = segments().stream().mapToLong(Segment::sequence).max().orElse(0) + 1;
+    }
+
+    void append(List<AuditEvent> batch) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(batch.size() * 160);
+        for (AuditEvent event : batch) {
+            buf.write(objectMapper.writeValueAsBytes(event));
+            buf.write('\n');
+        }
+        if (channel == null || (segmentBytes > 0 && segmentBytes + buf.size() > maxSegmentBytes)) {
+            rotate();
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buf.toByteArray());
+        while (bytes.hasRemaining()) {
+            segmentBytes += channel.write(bytes);
+        }
+    }
+
+    /** Flushes appended data to the device (data only; file metadata is not needed to read it back). */
+    void force() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void rotate() throws IOException {
+        close();
+        Path path = dir.resolve("audit-" + String.format("%010d", nextSequence++) + "-" + System.currentTimeMillis() + ".jsonl");
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentBytes = 0;
+        log.debug("Opened audit segment {}", path.getFileName());
+    }
+
+    /** Newest-first matches, reading segments from the newest back until the limit is met. */
+    List<AuditEvent> query(AuditQuery query) throws IOException {
+        List<Segment> segments = segments();
+        List<AuditEvent> results = new ArrayList<>(Math.min(query.limit(), 256));
+        for (int i = segments.size() - 1; i >= 0 && results.size() < query.limit(); i--) {
+            Segment segment = segments.get(i);
+            // Every event in a segment was written before the next one was opened
+            Segment next = i + 1 < segments.size() ? segments.get(i + 1) : null;
+            if (query.from() != null && next != null && next.openedAt().isBefore(query.from())) {
+                break; // this and all older segments end before the window
+            }
+            Deque<AuditEvent> newestInSegment = scan(segment.path(), query, query.limit() - results.size());
+            newestInSegment.descendingIterator().forEachRemaining(results::add);
+        }
+        return results;
+    }
+
+    // Keeps only the last `keep` matches of the segment, so memory is bounded by the limit
+    private Deque<AuditEvent> scan(Path path, AuditQuery query, int keep) throws IOException {
+        Deque<AuditEvent> matches = new ArrayDeque<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                AuditEvent event;
+                try {
+                    event = objectMapper.readValue(line, AuditEvent.class);
+                } catch (IOException ex) {
+                    continue; // torn write at the end of the open segment
+                }
+                if (query.matches(event)) {
+                    if (matches.size() == keep) {
+                        matches.removeFirst();
+                    }
+                    matches.addLast(event);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private List<Segment> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .map(Segment::parse)
+                    .filter(s -> s != null)
+                    .sorted(Comparator.comparingLong(Segment::sequence))
+                    .toList();
+        }
+    }
+
+    private record Segment(Path path, long sequence, Instant openedAt) {
+
+        static Segment parse(Path path) {
+            Matcher m = SEGMENT_NAME.matcher(path.getFileName().toString());
+            if (!m.matches()) {
+                return null;
+            }
+            return new Segment(path, Long.parseLong(m.group(1)), Instant.ofEpochMilli(Long.parseLong(m.group(2))));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.common.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring buffer.
+ *
+ * Producers claim a position with one CAS on the tail and publish by bumping
+ * the slot's sequence; the consumer reads slots whose sequence says "published"
+ * and hands them back one lap ahead. offer() never blocks - it fails when the
+ * ring is full, and the caller decides what to do with the element.
+ */
+final class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // written by the consumer only
+
+    MpscRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, pos + 1); // publish
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // the consumer has not freed this slot yet: full
+            } else {
+                pos = tail.get(); // another producer took it
+            }
+        }
+    }
+
+    /** Consumer only: hands up to max published elements to sink, in claim order. */
+    int drain(Consumer<E> sink, int max) {
+        long h = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (h & mask);
+            if (sequences.get(index) != h + 1) {
+                break; // empty, or the next producer has claimed but not yet published
+            }
+            E element = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.set(index, h + capacity); // free the slot for the next lap
+            h++;
+            drained++;
+            sink.accept(element);
+        }
+        head = h;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.common.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts and stops an in-process JFR recording with the application events
+ * (jfr/app-events.jfc) layered over the JDK "default" settings, so the domain
+ * events can be switched on in a running node without a restart. Each app ships
+ * its own preset under that classpath path, naming its own events.
+ *
+ * The same preset works from the command line:
+ * {@code jcmd <pid> JFR.start settings=default settings=app-events.jfc}
+ */
+@Service
+public class JfrRecordingService {
+
+    private static final String PRESET = "/jfr/app-events.jfc";
+    private static final String RECORDING_NAME = "app-events";
+    private static final DateTimeFormatter FILE_STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final Path dumpDir;
+    private final Duration maxAge;
+    private final Map<String, String> settings;
+
+    private Recording recording; // guarded by this
+
+    public JfrRecordingService(
+            @Value("${app.jfr.dump-dir:./data/jfr}") String dumpDir,
+            @Value("${app.jfr.max-age:30m}") Duration maxAge) throws IOException {
+        this.dumpDir = Paths.get(dumpDir).toAbsolutePath().normalize();
+        this.maxAge = maxAge;
+        this.settings = loadSettings();
+    }
+
+    public synchronized Map<String, Object> start() {
+        if (recording != null) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        Recording r = new Recording(settings);
+        r.setName(RECORDING_NAME);
+        r.setToDisk(true);
+        r.setMaxAge(maxAge);
+        r.start();
+        recording = r;
+        return status();
+    }
+
+    /** Stops the running recording and returns the path of the written .jfr file. */
+    public synchronized Path stop() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("No recording is running");
+        }
+        Files.createDirectories(dumpDir);
+        Path target = dumpDir.resolve(RECORDING_NAME + "-" + FILE_STAMP.format(Instant.now()) + ".jfr");
+        try {
+            recording.setDestination(target);
+            recording.stop();
+        } finally {
+            recording.close();
+            recording = null;
+        }
+        return target;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", recording != null);
+        if (recording != null) {
+            status.put("startedAt", recording.getStartTime());
+            status.put("maxAge", maxAge.toString());
+        }
+        return status;
+    }
+
+    private static Map<String, String> loadSettings() throws IOException {
+        Map<String, String> merged = new HashMap<>();
+        try {
+            merged.putAll(Configuration.getConfiguration("default").getSettings());
+            try (InputStream in = JfrRecordingService.class.getResourceAsStream(PRESET)) {
+                if (in == null) {
+                    throw new IOException("JFR preset not found on classpath: " + PRESET);
+                }
+                try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                    merged.putAll(Configuration.create(reader).getSettings());
+                }
+            }
+        } catch (ParseException e) {
+            throw new IOException("Invalid JFR configuration", e);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.common.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Background maintenance that only one node may run at a time, in short transactions.
+ *
+ * Every transaction first takes pg_try_advisory_xact_lock on a key derived from the
+ * job name; if another node holds it the work is skipped rather than waited for, and
+ * the lock goes away with the transaction. batches() repeats a batch until one comes
+ * back short, the per-run cap is hit or the thread is interrupted, sleeping between
+ * batches. The pause doubles (up to maxPause) while batches run slower than
+ * targetBatchTime and halves back towards pause otherwise, so a busy database sees
+ * less of the job. A failed batch is retried after maxPause, a few times at most.
+ */
+public class LockedBatchJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LockedBatchJob.class);
+
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+    @FunctionalInterface
+    public interface Batch {
+        /** Runs one batch inside the locked transaction and returns the number of rows it handled. */
+        int run();
+    }
+
+    /** Rows handled and batches run; skipped when another node held the lock. */
+    public record Result(long rows, int batches, boolean skipped) {
+    }
+
+    private final String name;
+    private final long lockKey;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+
+    private int batchSize = 1000;
+    private int maxBatchesPerRun = 100;
+    private long minPauseMillis = 50;
+    private long maxPauseMillis = 50;
+    private long targetBatchMillis = Long.MAX_VALUE;
+
+    public LockedBatchJob(String name, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.name = name;
+        this.lockKey = lockKey(name);
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public LockedBatchJob batchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        return this;
+    }
+
+    public LockedBatchJob maxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        return this;
+    }
+
+    /** Fixed pause between batches. */
+    public LockedBatchJob pause(Duration pause) {
+        return pause(pause, pause, null);
+    }
+
+    /** Adaptive pause; a null targetBatchTime never counts a batch as slow. */
+    public LockedBatchJob pause(Duration pause, Duration maxPause, Duration targetBatchTime) {
+        this.minPauseMillis = pause.toMillis();
+        this.maxPauseMillis = Math.max(maxPause.toMillis(), minPauseMillis);
+        this.targetBatchMillis = targetBatchTime == null ? Long.MAX_VALUE : targetBatchTime.toMillis();
+        return this;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /** Runs work in one transaction holding the lock; empty if another node holds it (or work returned null). */
+    public <T> Optional<T> once(TransactionCallback<T> work) {
+        Optional<T> result = tx.execute(status -> tryLock()
+                ? Optional.ofNullable(work.doInTransaction(status))
+                : Optional.<T>empty());
+        return result == null ? Optional.empty() : result;
+    }
+
+    public Result batches(Batch batch) {
+        long pause = minPauseMillis;
+        long rows = 0;
+        int batches = 0;
+        int failures = 0;
+
+        while (batches < maxBatchesPerRun) {
+            long started = System.nanoTime();
+            int n;
+            try {
+                Integer result = tx.execute(status -> tryLock() ? batch.run() : -1);
+                n = result == null ? 0 : result;
+                failures = 0;
+            } catch (DataAccessException e) {
+                // Typically lock_timeout: back off hard and try again
+                if (++failures >= MAX_CONSECUTIVE_FAILURES) {
+                    throw e;
+                }
+                logger.debug("{} batch failed, backing off: {}", name, e.getMessage());
+                pause = maxPauseMillis;
+                if (!sleep(pause)) {
+                    break;
+                }
+                continue;
+            }
+            if (n < 0) {
+                logger.debug("Another node is running {}; skipping this run", name);
+                return new Result(rows, batches, true);
+            }
+            rows += n;
+            batches++;
+            if (n < batchSize) {
+                break;
+            }
+
+            long tookMillis = (System.nanoTime() - started) / 1_000_000;
+            pause = tookMillis > targetBatchMillis
+                    ? Math.min(pause * 2, maxPauseMillis)
+                    : Math.max(minPauseMillis, pause / 2);
+            if (!sleep(pause)) {
+                break;
+            }
+        }
+        return new Result(rows, batches, false);
+    }
+
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, lockKey));
+    }
+
+    // 64-bit FNV-1a of the name, so jobs need no hand-picked key
+    static long lockKey(String name) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.common.metrics;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SQL statistics for the request currently running on this thread.
+ *
+ * Filled by {@link QueryStatsListener} for every JDBC execution and read by
+ * {@link QueryStatsFilter} when the request completes. Statements executed on
+ * threads without an active request (schedulers, seeders) are not tracked.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    // Distinct SELECT strings tracked per request for N+1 detection
+    private static final int MAX_TRACKED_SELECTS = 256;
+
+    private final Map<String, Integer> selectCounts = new HashMap<>();
+    private int statements;
+    private long elapsedNanos;
+    private int maxRepeats;
+    private String mostRepeatedSql;
+
+    private QueryStats() {
+    }
+
+    static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void record(String sql, long nanos) {
+        statements++;
+        elapsedNanos += nanos;
+
+        if (sql == null || !isSelect(sql)) {
+            return;
+        }
+        Integer seen = selectCounts.get(sql);
+        if (seen == null && selectCounts.size() >= MAX_TRACKED_SELECTS) {
+            return;
+        }
+        int count = seen == null ? 1 : seen + 1;
+        selectCounts.put(sql, count);
+        if (count > maxRepeats) {
+            maxRepeats = count;
+            mostRepeatedSql = sql;
+        }
+    }
+
+    private static boolean isSelect(String sql) {
+        int i = 0;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return sql.regionMatches(true, i, "select", 0, 6);
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** Highest number of times one identical SELECT ran in this request. */
+    public int getMaxRepeats() {
+        return maxRepeats;
+    }
+
+    public String getMostRepeatedSql() {
+        return mostRepeatedSql;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d statements, %.2f ms", statements, elapsedNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link QueryStats} scope around every request (ahead of the security
+ * filters, so authentication queries are included) and, when the request ends,
+ * records statement count and DB time per endpoint and flags likely N+1 patterns.
+ *
+ * With app.query-stats.expose-header=true (dev profile) the numbers are also
+ * returned as X-Query-Count / X-Query-Time-Ms response headers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean exposeHeader;
+    private final int nPlusOneThreshold;
+
+    public QueryStatsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.query-stats.expose-header:false}") boolean exposeHeader,
+            @Value("${app.query-stats.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.exposeHeader = exposeHeader;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        QueryStats stats = QueryStats.start();
+        HttpServletResponse target = exposeHeader ? new StatsHeaderResponse(response, stats) : response;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            QueryStats.clear();
+            if (exposeHeader && !response.isCommitted()) {
+                writeHeaders(response, stats);
+            }
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        if (stats.getStatements() == 0) {
+            return;
+        }
+
+        // Route template, never the raw URI, to keep tag cardinality bounded
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("db.request.statements")
+                .description("JDBC executions per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("db.request.time")
+                .description("Total time spent in JDBC per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getMaxRepeats() >= nPlusOneThreshold) {
+            Counter.builder("db.request.n_plus_one")
+                    .description("Requests that ran one identical SELECT repeatedly")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Possible N+1 on {} {}: same SELECT ran {} times ({}): {}",
+                    method, uri, stats.getMaxRepeats(), stats, stats.getMostRepeatedSql());
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} {}: {}", method, uri, stats);
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, QueryStats stats) {
+        response.setHeader("X-Query-Count", Integer.toString(stats.getStatements()));
+        response.setHeader("X-Query-Time-Ms", String.format(Locale.ROOT, "%.2f", stats.getElapsedNanos() / 1_000_000.0));
+    }
+
+    // Headers must be set before the body is flushed, so write them at commit time
+    private static final class StatsHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final QueryStats stats;
+
+        private StatsHeaderResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders((HttpServletResponse) getResponse(), stats);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.common.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * datasource-proxy listener that adds every JDBC execution (a batch counts once,
+ * as one round trip) to the current request's {@link QueryStats}.
+ */
+public class QueryStatsListener implements QueryExecutionListener {
+
+    private static final String START_KEY = QueryStatsListener.class.getName() + ".start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (QueryStats.current() != null) {
+            execInfo.addCustomValue(START_KEY, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryStats.current();
+        Long start = execInfo.getCustomValue(START_KEY, Long.class);
+        if (stats == null || start == null) {
+            return;
+        }
+        String sql = queryInfoList.isEmpty() ? null : queryInfoList.get(0).getQuery();
+        stats.record(sql, System.nanoTime() - start);
+    }
+}
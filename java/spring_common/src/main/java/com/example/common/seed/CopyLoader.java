@@ -0,0 +1,161 @@
+package com.example.common.seed;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parallel COPY loader behind the synthetic data seeders of both apps.
+ *
+ * Rows are streamed to Postgres with COPY by several writers in parallel, each on its
+ * own connection and id range. Every row is generated from (seed, table, row index)
+ * only, so the same seed always produces the same dataset regardless of the writer
+ * count. The apps only supply the COPY statement and a RowGenerator per table.
+ */
+public class CopyLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(CopyLoader.class);
+
+    private static final int FLUSH_CHARS = 64 * 1024;
+
+    @FunctionalInterface
+    public interface RowGenerator {
+        /** Appends one CSV line (with its trailing newline) for the row with this id. */
+        void append(StringBuilder out, long id, SplittableRandom rnd);
+    }
+
+    private final DataSource dataSource;
+    private final int writers;
+    private final long seed;
+
+    public CopyLoader(DataSource dataSource, int writers, long seed) {
+        this.dataSource = dataSource;
+        this.writers = Math.max(1, writers);
+        this.seed = seed;
+    }
+
+    /**
+     * COPYs that many generated rows into table, with ids continuing after its current
+     * maximum, then moves the identity sequence past them. salt keeps the random
+     * streams of different tables apart.
+     */
+    public void seedTable(String table, String copySql, long rows, long salt, RowGenerator generator) throws Exception {
+        if (rows <= 0) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        long baseId = maxId(table);
+        int threads = (int) Math.min(writers, rows);
+        long chunk = (rows + threads - 1) / threads;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>(threads);
+            for (int w = 0; w < threads; w++) {
+                long from = w * chunk;
+                long to = Math.min(rows, from + chunk);
+                if (from >= to) {
+                    break;
+                }
+                results.add(pool.submit(() -> copyRange(copySql, baseId, from, to, salt, generator)));
+            }
+
+            long written = 0;
+            for (Future<Long> result : results) {
+                written += result.get();
+            }
+
+            resetIdentity(table);
+            logger.info("Seeded {} synthetic rows into {} with {} writers in {} ms",
+                    written, table, results.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public long maxId(String table) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+                Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    public static String pick(SplittableRandom rnd, String[] values) {
+        return values[rnd.nextInt(values.length)];
+    }
+
+    /** Appends value as one quoted CSV field. */
+    public static void csv(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private long copyRange(String copySql, long baseId, long from, long to, long salt, RowGenerator generator)
+            throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+            try {
+                StringBuilder buf = new StringBuilder(FLUSH_CHARS + 1024);
+                for (long row = from; row < to; row++) {
+                    generator.append(buf, baseId + row + 1, new SplittableRandom(rowSeed(salt, row)));
+                    if (buf.length() >= FLUSH_CHARS) {
+                        flush(copy, buf);
+                    }
+                }
+                flush(copy, buf);
+                return copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        }
+    }
+
+    private long rowSeed(long salt, long row) {
+        // SplittableRandom mixes its seed, so a simple combination is enough here
+        return (seed * 31 + salt) * 0x9E3779B97F4A7C15L + row;
+    }
+
+    private void resetIdentity(String table) throws SQLException {
+        // Ids were written explicitly, so move the identity sequence past them
+        try (Connection conn = dataSource.getConnection();
+                Statement st = conn.createStatement()) {
+            st.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), (SELECT MAX(id) FROM " + table + "))");
+        }
+    }
+
+    private static void flush(CopyIn copy, StringBuilder buf) throws SQLException {
+        if (buf.length() == 0) {
+            return;
+        }
+        byte[] bytes = buf.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buf.setLength(0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.common.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+class AuditSegmentStoreTest {
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void rotatesOnceASegmentWouldExceedItsLimit() throws IOException {
+		long eventBytes = objectMapper.writeValueAsBytes(event(0)).length + 1;
+		try (AuditSegmentStore store = new AuditSegmentStore(dir, eventBytes * 3, objectMapper)) {
+			for (int i = 0; i < 7; i++) {
+				store.append(List.of(event(i)));
+			}
+		}
+		// 3 + 3 + 1
+		List<Path> segments = segments();
+		assertEquals(3, segments.size());
+		assertEquals(3, Files.readAllLines(segments.get(0)).size());
+		assertEquals(3, Files.readAllLines(segments.get(1)).size());
+		assertEquals(1, Files.readAllLines(segments.get(2)).size());
+	}
+
+	@Test
+	void keepsABatchLargerThanTheLimitInOneSegment() throws IOException {
+		try (AuditSegmentStore store = new AuditSegmentStore(dir, 10, objectMapper)) {
+			store.append(List.of(event(0), event(1), event(2)));
+			store.append(List.of(event(3)));
+		}
+		List<Path> segments = segments();
+		assertEquals(2, segments.size());
+		assertEquals(3, Files.readAllLines(segments.get(0)).size());
+	}
+
+	@Test
+	void continuesTheSequenceAfterReopening() throws IOException {
+		try (AuditSegmentStore store = new AuditSegmentStore(dir, 1 << 20, objectMapper)) {
+			store.append(List.of(event(0)));
+		}
+		try (AuditSegmentStore store = new AuditSegmentStore(dir, 1 << 20, objectMapper)) {
+			store.append(List.of(event(1)));
+		}
+		List<Path> segments = segments();
+		assertEquals(2, segments.size());
+		assertEquals("audit-0000000001-", segments.get(0).getFileName().toString().substring(0, 17));
+		assertEquals("audit-0000000002-", segments.get(1).getFileName().toString().substring(0, 17));
+	}
+
+	@Test
+	void queriesNewestFirstAcrossSegmentsAndSkipsTornLines() throws IOException {
+		long eventBytes = objectMapper.writeValueAsBytes(event(0)).length + 1;
+		try (AuditSegmentStore store = new AuditSegmentStore(dir, eventBytes * 2, objectMapper)) {
+			for (int i = 0; i < 5; i++) {
+				store.append(List.of(event(i)));
+			}
+			List<Path> segments = segments();
+			Files.writeString(segments.get(segments.size() - 1), "{\"at\":", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+			List<String> ids = new ArrayList<>();
+			store.query(new AuditQuery("task", null, null, null, null, 4)).forEach(e -> ids.add(e.entityId()));
+			assertEquals(List.of("4", "3", "2", "1"), ids);
+
+			List<AuditEvent> one = store.query(new AuditQuery("task", "2", null, null, null, 0));
+			assertEquals(1, one.size());
+			assertEquals("2", one.get(0).entityId());
+		}
+	}
+
+	private static AuditEvent event(int i) {
+		return new AuditEvent(Instant.ofEpochSecond(1_700_000_000L + i), "alice", "task", String.valueOf(i), "UPDATE", "s");
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.sorted().toList();
+		}
+	}
+}
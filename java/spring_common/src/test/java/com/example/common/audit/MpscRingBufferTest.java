@@ -0,0 +1,112 @@
+package com.example.common.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class MpscRingBufferTest {
+
+	@Test
+	void roundsCapacityUpToAPowerOfTwo() {
+		assertEquals(8, new MpscRingBuffer<Integer>(5).capacity());
+		assertEquals(8, new MpscRingBuffer<Integer>(8).capacity());
+		assertEquals(4, new MpscRingBuffer<Integer>(1).capacity());
+	}
+
+	@Test
+	void rejectsOffersWhenFullUntilDrained() {
+		MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(ring.offer(i));
+		}
+		assertFalse(ring.offer(4));
+		assertEquals(4, ring.size());
+
+		List<Integer> out = new ArrayList<>();
+		assertEquals(1, ring.drain(out::add, 1));
+		assertTrue(ring.offer(4));
+		assertFalse(ring.offer(5));
+	}
+
+	@Test
+	void drainsInOfferOrderUpToMax() {
+		MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(8);
+		for (int i = 0; i < 6; i++) {
+			ring.offer(i);
+		}
+		List<Integer> out = new ArrayList<>();
+		assertEquals(4, ring.drain(out::add, 4));
+		assertEquals(2, ring.drain(out::add, 4));
+		assertEquals(0, ring.drain(out::add, 4));
+		assertEquals(List.of(0, 1, 2, 3, 4, 5), out);
+		assertEquals(0, ring.size());
+	}
+
+	@Test
+	void keepsOrderAcrossManyLaps() {
+		MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+		List<Integer> out = new ArrayList<>();
+		int next = 0;
+		for (int lap = 0; lap < 100; lap++) {
+			// 3 per round on a 4-slot ring, so slot positions drift across laps
+			for (int i = 0; i < 3; i++) {
+				assertTrue(ring.offer(next++));
+			}
+			ring.drain(out::add, 3);
+		}
+		assertEquals(300, out.size());
+		for (int i = 0; i < out.size(); i++) {
+			assertEquals(i, out.get(i));
+		}
+	}
+
+	@Test
+	void concurrentProducersLoseNothingAndKeepPerProducerOrder() throws Exception {
+		int producers = 4;
+		int perProducer = 50_000;
+		MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(1024);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			long producer = p;
+			Thread t = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (long i = 0; i < perProducer; i++) {
+					while (!ring.offer(new long[] { producer, i })) {
+						Thread.onSpinWait();
+					}
+				}
+			});
+			t.start();
+			threads.add(t);
+		}
+
+		long[] expected = new long[producers];
+		int[] received = { 0 };
+		start.countDown();
+		while (received[0] < producers * perProducer) {
+			ring.drain(e -> {
+				assertEquals(expected[(int) e[0]], e[1]);
+				expected[(int) e[0]]++;
+				received[0]++;
+			}, 256);
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		for (long count : expected) {
+			assertEquals(perProducer, count);
+		}
+		assertEquals(0, ring.size());
+	}
+}
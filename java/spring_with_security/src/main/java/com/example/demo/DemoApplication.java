@@ -2,8 +2,11 @@ package com.example.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// com.example.common: shared components from spring_common (query stats, JFR, audit)
+@SpringBootApplication(scanBasePackages = { "com.example.demo", "com.example.common" })
+@EnableScheduling
 public class DemoApplication {
 
 	public static void main(String[] args) {
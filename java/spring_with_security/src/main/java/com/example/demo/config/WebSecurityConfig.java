@@ -1,8 +1,12 @@
 package com.example.demo.config;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -10,12 +14,25 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.csrf.CsrfTokenRequestAttributeHandler;
 
+import com.example.demo.metrics.MeteredPasswordEncoder;
+import com.example.demo.security.Argon2Calibrator;
+import com.example.demo.security.Argon2Calibrator.Argon2Settings;
+import com.example.demo.security.BudgetedPasswordEncoder;
+import com.example.demo.security.HashingCapacityFailureHandler;
+import com.example.demo.security.PasswordHashingBudget;
+import com.example.demo.security.PrincipalRefreshFilter;
+import com.example.demo.security.PrincipalRefreshRegistry;
+import com.example.demo.service.CustomUserDetailsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -24,17 +41,23 @@ public class WebSecurityConfig {
 
     @Bean
     @Profile("dev")
-    public SecurityFilterChain devSecurityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain devSecurityFilterChain(HttpSecurity http,
+            PrincipalRefreshRegistry principalRefreshRegistry,
+            CustomUserDetailsService userDetailsService) throws Exception {
         http
+        .addFilterAfter(new PrincipalRefreshFilter(principalRefreshRegistry, userDetailsService),
+                SecurityContextHolderFilter.class)
 
         .authorizeHttpRequests((requests) -> requests
-                        .requestMatchers("/", "/home", "/register", "/setup").permitAll()
+                        .requestMatchers("/", "/home", "/register", "/register/username-available", "/setup").permitAll()
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")                        
                         .requestMatchers("/upload").authenticated()  // Explicitly allow authenticated users
                         .anyRequest().authenticated())
                 .formLogin((form) -> form
                         .loginPage("/login")
                         .defaultSuccessUrl("/tasks", true)
+                        .failureHandler(new HashingCapacityFailureHandler())
                         .permitAll())
 
                  .csrf(csrf -> csrf
@@ -53,16 +76,22 @@ public class WebSecurityConfig {
 
     @Bean
     @Profile("!dev")
-    public SecurityFilterChain prodSecurityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain prodSecurityFilterChain(HttpSecurity http,
+            PrincipalRefreshRegistry principalRefreshRegistry,
+            CustomUserDetailsService userDetailsService) throws Exception {
         http
+        .addFilterAfter(new PrincipalRefreshFilter(principalRefreshRegistry, userDetailsService),
+                SecurityContextHolderFilter.class)
 
         .authorizeHttpRequests((requests) -> requests
-                        .requestMatchers("/", "/home", "/register", "/setup").permitAll()
+                        .requestMatchers("/", "/home", "/register", "/register/username-available", "/setup").permitAll()
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")                        
                         .anyRequest().authenticated())
                 .formLogin((form) -> form
                         .loginPage("/login")
                         .defaultSuccessUrl("/tasks", true)
+                        .failureHandler(new HashingCapacityFailureHandler())
                         .permitAll())
                 .logout((logout) -> logout.permitAll());
 
@@ -71,25 +100,41 @@ public class WebSecurityConfig {
     
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        // Reasonable defaults for web apps
-        int saltLength = 16; // bytes
-        int hashLength = 32; // bytes
-        int parallelism = 1; // currently 1 thread
-        int memory = 1 << 16; // 64 MB
-        int iterations = 3;
-
-        Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder(
-                saltLength,
-                hashLength,
-                parallelism,
-                memory,
-                iterations);
+    public Argon2Settings argon2Settings(
+            @Value("${app.password-hashing.calibration-file:./data/password-hashing.properties}") String calibrationFile,
+            @Value("${app.password-hashing.target-latency:250ms}") Duration targetLatency,
+            @Value("${app.password-hashing.max-memory-mb:64}") int maxMemoryMb,
+            @Value("${app.password-hashing.recalibrate:false}") boolean recalibrate) {
+        return new Argon2Calibrator(Path.of(calibrationFile), targetLatency, maxMemoryMb * 1024, recalibrate).resolve();
+    }
+
+    @Bean
+    public PasswordHashingBudget passwordHashingBudget(
+            @Value("${app.password-hashing.memory-budget-mb:512}") long memoryBudgetMb,
+            @Value("${app.password-hashing.max-memory-mb:64}") int maxMemoryMb,
+            @Value("${app.password-hashing.max-queue:200}") int maxQueue,
+            @Value("${app.password-hashing.queue-timeout:5s}") Duration queueTimeout,
+            MeterRegistry meterRegistry) {
+        // Sized by the ceiling rather than the calibrated cost: hashes made before a
+        // recalibration are verified with their own (possibly larger) memory cost
+        return new PasswordHashingBudget(memoryBudgetMb * 1024, maxMemoryMb * 1024L, maxQueue, queueTimeout, meterRegistry);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            Argon2Settings argon2Settings,
+            MeterRegistry meterRegistry,
+            PasswordHashingBudget passwordHashingBudget) {
+        // Host-calibrated parameters; weaker stored hashes report upgradeEncoding()
+        // and are rehashed on login via CustomUserDetailsService.updatePassword
+        Argon2PasswordEncoder argon2 = argon2Settings.toEncoder();
 
         String idForEncode = "argon2";
         Map<String, PasswordEncoder> encoders = new HashMap<>();
         encoders.put(idForEncode, argon2);
 
-        return new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Budget outermost so auth.password measures hashing only, not queueing
+        PasswordEncoder metered = new MeteredPasswordEncoder(new DelegatingPasswordEncoder(idForEncode, encoders), meterRegistry);
+        return new BudgetedPasswordEncoder(metered, passwordHashingBudget);
     }
 }
\ No newline at end of file
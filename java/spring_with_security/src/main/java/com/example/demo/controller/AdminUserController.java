@@ -0,0 +1,39 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.User;
+import com.example.demo.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin-only user maintenance (/admin/** requires ADMIN in WebSecurityConfig)
+ */
+@RestController
+@RequestMapping("/admin/users")
+public class AdminUserController {
+
+    @Autowired
+    private UserService userService;
+
+    @PostMapping("/{username}/department")
+    public ResponseEntity<Map<String, String>> updateDepartment(@PathVariable String username,
+                                                                @RequestParam(required = false) String department) {
+        try {
+            User user = userService.updateDepartment(username, department);
+            Map<String, String> body = new HashMap<>();
+            body.put("username", user.getUsername());
+            body.put("department", user.getDepartment());
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.controller;
+
+import com.example.common.audit.AuditEvent;
+import com.example.common.audit.AuditLog;
+import com.example.common.audit.AuditQuery;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Query API over the audit segments, newest first.
+ * Lives under /admin/**, so the filter chain already requires ADMIN.
+ */
+@RestController
+@RequestMapping("/admin/audit")
+@PreAuthorize("hasRole('ADMIN')")
+public class AuditController {
+
+    private final AuditLog auditLog;
+
+    public AuditController(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AuditEvent>> query(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String entityId,
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "" + AuditQuery.DEFAULT_LIMIT) int limit) throws IOException {
+        return ResponseEntity.ok(auditLog.query(new AuditQuery(entityType, entityId, actor, from, to, limit)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.TaskCounters;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Task status dashboard. Both views read the precomputed TaskCounters snapshot,
+ * so a page load costs the same whatever the number of tasks.
+ */
+@Controller
+public class DashboardController {
+
+    private final TaskCounters taskCounters;
+
+    public DashboardController(TaskCounters taskCounters) {
+        this.taskCounters = taskCounters;
+    }
+
+    @GetMapping("/dashboard")
+    public String dashboard(Model model) {
+        model.addAttribute("dashboard", taskCounters.dashboard());
+        return "dashboard";
+    }
+
+    @GetMapping("/dashboard/counts")
+    @ResponseBody
+    public TaskCounters.Dashboard counts() {
+        return taskCounters.dashboard();
+    }
+}
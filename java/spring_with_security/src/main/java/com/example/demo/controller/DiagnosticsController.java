@@ -0,0 +1,54 @@
+package com.example.demo.controller;
+
+import com.example.common.diagnostics.JfrRecordingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Runtime JFR control for the application events (jfr/app-events.jfc).
+ * Lives under /admin/**, so the filter chain already requires ADMIN.
+ */
+@RestController
+@RequestMapping("/admin/jfr")
+@PreAuthorize("hasRole('ADMIN')")
+public class DiagnosticsController {
+
+    private final JfrRecordingService jfrRecordingService;
+
+    public DiagnosticsController(JfrRecordingService jfrRecordingService) {
+        this.jfrRecordingService = jfrRecordingService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(jfrRecordingService.status());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<?> start() {
+        try {
+            return ResponseEntity.ok(jfrRecordingService.start());
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<?> stop() throws IOException {
+        try {
+            Path file = jfrRecordingService.stop();
+            return ResponseEntity.ok(Map.of("file", file.toString()));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+        }
+    }
+}
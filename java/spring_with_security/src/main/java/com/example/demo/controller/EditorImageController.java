@@ -1,10 +1,10 @@
 package com.example.demo.controller;
 
+import com.example.demo.metrics.UploadMetrics;
+import com.example.demo.service.MediaFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.CacheControl;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
@@ -34,14 +34,32 @@ public class EditorImageController {
     );
 
     private final Path uploadsDir;
+    private final UploadMetrics uploadMetrics;
+    private final MediaFileServer mediaFileServer;
 
-    public EditorImageController(@Value("${app.upload-dir}") String uploadDir) throws IOException {
+    public EditorImageController(@Value("${app.upload-dir}") String uploadDir, UploadMetrics uploadMetrics,
+                                 MediaFileServer mediaFileServer) throws IOException {
+        this.uploadMetrics = uploadMetrics;
+        this.mediaFileServer = mediaFileServer;
         this.uploadsDir = Path.of(uploadDir).toAbsolutePath().normalize();
         Files.createDirectories(this.uploadsDir);
     }
 
     @PostMapping(path = "/editor-images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, String>> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<Map<String, String>> response = store(file);
+            uploadMetrics.record(UploadMetrics.Endpoint.EDITOR, start,
+                    UploadMetrics.outcomeOf(response.getStatusCode().value()), file != null ? file.getSize() : -1);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            uploadMetrics.record(UploadMetrics.Endpoint.EDITOR, start, UploadMetrics.Outcome.ERROR, -1);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> store(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "No file uploaded"));
         }
@@ -74,38 +92,20 @@ public class EditorImageController {
     }
 
     @GetMapping("/media1/{name}")
-    public ResponseEntity<Resource> get(@PathVariable String name) throws IOException {
+    public void get(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         String fileName = StringUtils.cleanPath(name);
         if (fileName.contains("..") || fileName.contains("/") || fileName.contains("\\")) {
-            return ResponseEntity.badRequest().build();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
         }
 
         Path filePath = uploadsDir.resolve(fileName).normalize();
-        if (!filePath.startsWith(uploadsDir) || !Files.exists(filePath) || !Files.isRegularFile(filePath)) {
-            return ResponseEntity.notFound().build();
-        }
-
-        Resource resource = new UrlResource(filePath.toUri());
-        if (!resource.exists()) {
-            return ResponseEntity.notFound().build();
+        if (!filePath.startsWith(uploadsDir)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
-        String contentType = Files.probeContentType(filePath);
-        if (contentType == null) {
-            contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-        }
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("X-Content-Type-Options", "nosniff");
-        headers.setCacheControl(CacheControl.noStore());
-
-        //if ("image/svg+xml".equalsIgnoreCase(contentType)) {
-        //    headers.add("Content-Security-Policy", "default-src 'none'");
-        //}
-
-        return ResponseEntity.ok()
-            .headers(headers)
-            .contentType(MediaType.parseMediaType(contentType))
-            .body(resource);
+        mediaFileServer.serve(filePath, request, response);
     }
 }
@@ -1,20 +1,22 @@
 package com.example.demo.controller;
 
 import com.example.demo.config.FileUploadConfig;
+import com.example.demo.diagnostics.FileIoEvent;
+import com.example.demo.diagnostics.UploadValidationEvent;
+import com.example.demo.metrics.UploadMetrics;
 import com.example.demo.service.FileValidationService;
+import com.example.demo.service.MediaFileServer;
 import com.example.demo.service.FileValidationService.ValidationResult;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Encoding;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.owasp.untrust.boxedpath.BoxedPath;
 import org.owasp.untrust.boxedpath.PathSandbox;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.CacheControl;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -50,6 +52,12 @@ public class FileUploadController {
     @Autowired
     private FileValidationService validationService;
 
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    @Autowired
+    private MediaFileServer mediaFileServer;
+
     @GetMapping("/upload")
     public String showUploadForm(Model model) {
         model.addAttribute("maxSizeMB", uploadConfig.getMaxBytesPerFile() / (1024 * 1024));
@@ -62,6 +70,20 @@ public class FileUploadController {
             @Parameter(description = "File to upload", required = true, schema = @Schema(type = "string", format = "binary")) @RequestPart(value = "file", required = true) MultipartFile file,
             RedirectAttributes redirectAttributes) {
 
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<Map<String, String>> response = storeUpload(file, redirectAttributes);
+            uploadMetrics.record(UploadMetrics.Endpoint.FORM, start,
+                    UploadMetrics.outcomeOf(response.getStatusCode().value()), file.getSize());
+            return response;
+        } catch (RuntimeException e) {
+            uploadMetrics.record(UploadMetrics.Endpoint.FORM, start, UploadMetrics.Outcome.ERROR, -1);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> storeUpload(MultipartFile file, RedirectAttributes redirectAttributes) {
+
         // Validate single file
         if (file.isEmpty()) {
             redirectAttributes.addFlashAttribute("message", "Please select a file to upload");
@@ -96,7 +118,11 @@ public class FileUploadController {
             }
 
             // Validate file (extension, magic bytes, path traversal)
+            UploadValidationEvent validation = new UploadValidationEvent();
+            validation.begin();
             ValidationResult validationResult = validationService.validateFile(file, uploadPath);
+            validation.finish(file.getSize(), validationResult.getExtension(),
+                    validationResult.isValid(), validationResult.getMessage());
             if (!validationResult.isValid()) {
                 redirectAttributes.addFlashAttribute("message",
                         "File rejected: " + validationResult.getMessage());
@@ -109,7 +135,14 @@ public class FileUploadController {
             String uniqueFileName = UUID.randomUUID().toString() + "." + validationResult.getExtension();
             Path uniquePath = uploadPath.resolve(uniqueFileName).normalize();
 
-            Files.copy(file.getInputStream(), uniquePath, StandardCopyOption.REPLACE_EXISTING);
+            FileIoEvent write = new FileIoEvent();
+            write.begin();
+            long copied = -1;
+            try {
+                copied = Files.copy(file.getInputStream(), uniquePath, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                write.finish("write", uniqueFileName, Math.max(copied, 0), copied >= 0);
+            }
 
             String publicUrl = "/media/" + uniqueFileName;
             return ResponseEntity.created(URI.create(publicUrl)).body(Map.of("location", publicUrl));
@@ -129,12 +162,14 @@ public class FileUploadController {
     }
 
     @GetMapping("/media/{name:.+}")
-    public ResponseEntity<Resource> get(@PathVariable String name) throws IOException {
+    public void get(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         Path uploadDir = Paths.get(uploadConfig.getUploadDir()).toAbsolutePath().normalize();
 
         String fileName = StringUtils.cleanPath(name);
         if (fileName.contains("..") || fileName.contains("/") || fileName.contains("\\")) {
-            return ResponseEntity.badRequest().build();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
         }
 
         // Validate within sandbox (throws if escape attempt)
@@ -142,34 +177,13 @@ public class FileUploadController {
 
         // Actual filesystem path used for IO
         Path filePath = uploadDir.resolve(fileName).normalize();
-        if (!filePath.startsWith(uploadDir) || !Files.isRegularFile(filePath)) {
-            return ResponseEntity.notFound().build();
-        }
-
-        Resource resource = new UrlResource(filePath.toUri()); // now it's file://...
-        if (!resource.exists()) {
-            return ResponseEntity.notFound().build();
+        if (!filePath.startsWith(uploadDir)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
-        MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
-        String ext = StringUtils.getFilenameExtension(fileName);
-        if (ext != null) {
-            switch (ext.toLowerCase()) {
-                case "png" -> mediaType = MediaType.IMAGE_PNG;
-                case "jpg", "jpeg" -> mediaType = MediaType.IMAGE_JPEG;
-                case "gif" -> mediaType = MediaType.IMAGE_GIF;
-                case "webp" -> mediaType = MediaType.parseMediaType("image/webp");
-            }
-        }
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("X-Content-Type-Options", "nosniff");
-        headers.setCacheControl(CacheControl.noStore());
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(mediaType)
-                .body(resource);
+        // ETag/Range/caching and the transfer itself (sendfile where available)
+        mediaFileServer.serve(filePath, request, response);
     }
 
 }
\ No newline at end of file
@@ -30,7 +30,7 @@ public class ProfileController {
         String username = authentication.getName();
 
         // Fetch the user from database
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsernameIgnoreCase(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         model.addAttribute("user", user);
@@ -1,12 +1,16 @@
 package com.example.demo.controller;
 
+import com.example.demo.security.HashingCapacityExceededException;
 import com.example.demo.service.UserService;
+import com.example.demo.service.UsernameAvailability;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
 public class RegistrationController {
@@ -14,6 +18,9 @@ public class RegistrationController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UsernameAvailability usernameAvailability;
+
     /**
      * Show the first-time setup page (only accessible when no users exist)
      * If users already exist, redirect to login page
@@ -36,7 +43,8 @@ public class RegistrationController {
     @PostMapping("/setup")
     public String setupFirstAdmin(@RequestParam String username, 
                                    @RequestParam String password,
-                                   Model model) {
+                                   Model model,
+                                   HttpServletResponse response) {
         try {
             // Create the first admin user
             userService.registerFirstAdmin(username, password);
@@ -45,6 +53,9 @@ public class RegistrationController {
             model.addAttribute("message", "Admin account created successfully! Please login.");
             return "redirect:/login?setup=success";
             
+        } catch (HashingCapacityExceededException e) {
+            return serverBusy(model, response, true);
+
         } catch (IllegalStateException e) {
             // Someone already created the first user
             model.addAttribute("error", "Setup already completed. Please use login.");
@@ -80,7 +91,8 @@ public class RegistrationController {
     @PostMapping("/register")
     public String registerUser(@RequestParam String username, 
                                 @RequestParam String password,
-                                Model model) {
+                                Model model,
+                                HttpServletResponse response) {
         try {
             // Create regular user (not admin)
             userService.registerUser(username, password, false);
@@ -89,6 +101,9 @@ public class RegistrationController {
             model.addAttribute("message", "Registration successful! Please login.");
             return "redirect:/login?registered=true";
             
+        } catch (HashingCapacityExceededException e) {
+            return serverBusy(model, response, false);
+
         } catch (IllegalArgumentException e) {
             // Username already exists
             model.addAttribute("error", e.getMessage());
@@ -102,4 +117,25 @@ public class RegistrationController {
             return "register";
         }
     }
+
+    /**
+     * As-you-type availability check for the registration form
+     * Answered from an in-memory Bloom filter; the database is only asked when the name might be taken
+     */
+    @GetMapping("/register/username-available")
+    @ResponseBody
+    public UsernameAvailability.Result usernameAvailable(@RequestParam String username) {
+        return usernameAvailability.check(username);
+    }
+
+    /**
+     * Password hashing is at its memory budget: re-render the form with 503
+     */
+    private String serverBusy(Model model, HttpServletResponse response, boolean isSetup) {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+        model.addAttribute("error", "The server is busy. Please try again in a moment.");
+        model.addAttribute("isSetup", isSetup);
+        return "register";
+    }
 }
\ No newline at end of file
@@ -1,39 +1,143 @@
 // src/main/java/com/example/demo/controller/TaskController.java
 package com.example.demo.controller;
 
+import com.example.common.audit.AuditLog;
 import com.example.demo.model.Task;
 import com.example.demo.model.TaskStatus;
+import com.example.demo.service.AssigneeIndex;
+import com.example.demo.service.TaskBulkResult;
+import com.example.demo.service.TaskCursor;
+import com.example.demo.service.TaskEventBroadcaster;
+import com.example.demo.service.TaskListQuery;
+import com.example.demo.service.TaskPage;
+import com.example.demo.service.TaskPatch;
 import com.example.demo.service.TaskService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 @Controller
 @RequestMapping("/tasks")
 public class TaskController {
 
+   private static final String AUDIT_ENTITY = "task";
+
    private final TaskService service;
+   private final AuditLog auditLog;
+   private final TaskEventBroadcaster broadcaster;
+   private final AssigneeIndex assigneeIndex;
    private final String tinymceApiKey;
 
 
    public TaskController(
       TaskService service,
+      AuditLog auditLog,
+      TaskEventBroadcaster broadcaster,
+      AssigneeIndex assigneeIndex,
 
       @Value("${tinymce.api-key:}") String tinymceApiKey) {
       this.service = service;
+      this.auditLog = auditLog;
+      this.broadcaster = broadcaster;
+      this.assigneeIndex = assigneeIndex;
       this.tinymceApiKey = tinymceApiKey;
 
    }
 
    @GetMapping
-   public String list(Model model) {
-      model.addAttribute("tasks", service.findAll());
+   public String list(
+      @RequestParam(required = false) TaskStatus status,
+      @RequestParam(required = false) String assignTo,
+      @RequestParam(required = false) String createdBy,
+      @RequestParam(defaultValue = "newest") String sort,
+      @RequestParam(defaultValue = "" + TaskListQuery.DEFAULT_SIZE) int size,
+      @RequestParam(required = false) String after,
+      @RequestParam(required = false) String before,
+      Model model) {
+
+      boolean newestFirst = !"oldest".equals(sort);
+      TaskListQuery query = new TaskListQuery(status, assignTo, createdBy, newestFirst, size);
+      TaskPage page = service.findPage(query, parseCursor(after), parseCursor(before));
+
+      model.addAttribute("tasks", page.tasks());
+      addFilterAttributes(model, query, "/tasks");
+      model.addAttribute("nextUrl", pageUrl(query, "after", page.nextCursor()));
+      model.addAttribute("previousUrl", pageUrl(query, "before", page.previousCursor()));
+      return "tasks/list";
+   }
+
+   // Unpaginated admin view: rows are handed to the template as a lazy iterator
+   // and pulled batch by batch while it renders, so no List of entities is built
+   @GetMapping("/all")
+   @PreAuthorize("hasRole('ADMIN')")
+   public String listAll(
+      @RequestParam(required = false) TaskStatus status,
+      @RequestParam(required = false) String assignTo,
+      @RequestParam(required = false) String createdBy,
+      @RequestParam(defaultValue = "newest") String sort,
+      Model model) {
+
+      TaskListQuery query = new TaskListQuery(status, assignTo, createdBy, !"oldest".equals(sort), 0);
+      model.addAttribute("tasks", service.stream(query).iterator());
+      addFilterAttributes(model, query, "/tasks/all");
       return "tasks/list";
    }
 
+   // Live board updates for the list page (see TaskEventBroadcaster)
+   @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+   @ResponseBody
+   public SseEmitter events(HttpServletResponse response) {
+      try {
+         SseEmitter emitter = broadcaster.subscribe();
+         response.setHeader("X-Accel-Buffering", "no"); // no proxy buffering of the stream
+         return emitter;
+      } catch (IllegalStateException ex) {
+         throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+      }
+   }
+
+   // Assignee autocomplete for the task form, served from the in-memory prefix index
+   @GetMapping(value = "/assignees", produces = MediaType.APPLICATION_JSON_VALUE)
+   @ResponseBody
+   public List<AssigneeIndex.Suggestion> assignees(
+      @RequestParam(defaultValue = "") String prefix,
+      @RequestParam(required = false) String department,
+      @RequestParam(defaultValue = "10") int limit) {
+      return assigneeIndex.suggest(prefix, department, limit);
+   }
+
+   @GetMapping("/search")
+   public String search(@RequestParam(name = "q", required = false) String q, Model model) {
+      model.addAttribute("q", q);
+      model.addAttribute("hits", service.search(q, TaskService.MAX_SEARCH_RESULTS));
+      return "tasks/search";
+   }
+
+   // Archived (cold) tasks are only reachable through this search
+   @GetMapping("/archive")
+   public String searchArchive(@RequestParam(name = "q", required = false) String q, Model model) {
+      model.addAttribute("q", q);
+      model.addAttribute("archive", true);
+      model.addAttribute("hits", service.searchArchive(q, TaskService.MAX_SEARCH_RESULTS));
+      return "tasks/search";
+   }
+
    @GetMapping("/new")
    public String createForm(Model model) {
       model.addAttribute("task", new Task());
@@ -45,7 +149,8 @@ public class TaskController {
 
    @PostMapping
    public String create(@ModelAttribute Task task) {
-      service.save(task);
+      Task saved = service.create(task);
+      auditLog.record(AUDIT_ENTITY, saved.getId(), "create", auditSummary(saved));
       return "redirect:/tasks";
    }
 
@@ -58,17 +163,162 @@ public class TaskController {
       return "tasks/form";
    }
 
+   // Form edit: writes the editable columns only, guarded by the version the form was rendered with
    @PostMapping("/{id}")
-   public String update(@PathVariable Long id, @ModelAttribute Task task) {
+   public String update(@PathVariable Long id, @ModelAttribute Task task, Model model, HttpServletResponse response) {
       task.setId(id);
-      service.save(task);
+      TaskPatch patch = new TaskPatch(task.getName(), task.getDescription(), task.getAssignTo(), task.getStatus());
+      try {
+         if (task.getVersion() == null) {
+            throw new OptimisticLockingFailureException("Missing task version");
+         }
+         service.patch(id, task.getVersion(), patch);
+      } catch (OptimisticLockingFailureException ex) {
+         response.setStatus(HttpServletResponse.SC_CONFLICT);
+         model.addAttribute("error", "This task was changed by someone else. Reload it to see the latest version.");
+         model.addAttribute("statuses", TaskStatus.values());
+         model.addAttribute("tinymceApiKey", tinymceApiKey);
+         return "tasks/form";
+      }
+      auditLog.record(AUDIT_ENTITY, id, "update", auditSummary(task));
       return "redirect:/tasks";
    }
 
+   // Field-level edit for scripted clients: only the fields present in the body are written
+   @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+   @ResponseBody
+   public ResponseEntity<?> patch(@PathVariable Long id, @RequestBody TaskPatchRequest request) {
+      if (request.version() == null) {
+         return ResponseEntity.badRequest().body(Map.of("error", "version is required"));
+      }
+      TaskPatch patch = new TaskPatch(request.name(), request.description(), request.assignTo(), request.status());
+      if (patch.isEmpty()) {
+         return ResponseEntity.badRequest().body(Map.of("error", "Nothing to update"));
+      }
+      try {
+         long version = service.patch(id, request.version(), patch);
+         auditLog.record(AUDIT_ENTITY, id, "patch", "name=" + patch.name() + ", status=" + patch.status()
+            + ", assignTo=" + patch.assignTo() + (patch.description() != null ? ", description" : ""));
+         return ResponseEntity.ok(Map.of("id", id, "version", version));
+      } catch (OptimisticLockingFailureException ex) {
+         return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+      } catch (NoSuchElementException ex) {
+         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+      }
+   }
+
+   public record TaskPatchRequest(Long version, String name, String description, String assignTo, TaskStatus status) {
+   }
+
    @PostMapping("/{id}/delete")
    public String delete(@PathVariable Long id) {
       Task task = service.findById(id); // load from DB
       service.delete(task); // security check happens here
+      auditLog.record(AUDIT_ENTITY, id, "delete", auditSummary(task));
+      return "redirect:/tasks";
+   }
+
+   // Selected rows from the list page; tasks the user may not change are skipped, not rejected
+   @PostMapping("/bulk")
+   public String bulk(
+      @RequestParam String action,
+      @RequestParam(required = false) List<Long> ids,
+      @RequestParam(required = false) String assignTo,
+      @RequestParam(required = false) TaskStatus status,
+      RedirectAttributes redirectAttributes) {
+
+      try {
+         TaskBulkResult result;
+         String summary;
+         switch (action) {
+            case "reassign" -> {
+               result = service.reassign(ids, assignTo);
+               summary = "assignTo=" + assignTo.trim();
+            }
+            case "status" -> {
+               if (status == null) {
+                  throw new IllegalArgumentException("Status is required");
+               }
+               result = service.changeStatus(ids, status);
+               summary = "status=" + status;
+            }
+            case "delete" -> {
+               result = service.deleteAll(ids);
+               summary = "";
+            }
+            default -> throw new IllegalArgumentException("Unknown bulk action: " + action);
+         }
+         for (Long id : result.affectedIds()) {
+            auditLog.record(AUDIT_ENTITY, id, "bulk-" + action, summary);
+         }
+         redirectAttributes.addFlashAttribute("success", result.affectedIds().size() + " task(s) updated"
+            + (result.skipped() > 0 ? ", " + result.skipped() + " skipped (not found or not yours)" : ""));
+      } catch (IllegalArgumentException ex) {
+         redirectAttributes.addFlashAttribute("error", ex.getMessage());
+      }
+      return "redirect:/tasks";
+   }
+
+   @PostMapping("/bulk/reassign-all")
+   public String reassignAll(
+      @RequestParam String fromAssignee,
+      @RequestParam String assignTo,
+      RedirectAttributes redirectAttributes) {
+
+      try {
+         int updated = service.reassignAll(fromAssignee, assignTo);
+         auditLog.record(AUDIT_ENTITY, null, "bulk-reassign-all",
+            fromAssignee.trim() + " -> " + assignTo.trim() + ": " + updated + " task(s)");
+         redirectAttributes.addFlashAttribute("success", updated + " task(s) reassigned");
+      } catch (IllegalArgumentException ex) {
+         redirectAttributes.addFlashAttribute("error", ex.getMessage());
+      }
       return "redirect:/tasks";
    }
+
+   private static String auditSummary(Task task) {
+      return "name=" + task.getName() + ", status=" + task.getStatus() + ", assignTo=" + task.getAssignTo();
+   }
+
+   private static void addFilterAttributes(Model model, TaskListQuery query, String listUrl) {
+      model.addAttribute("query", query);
+      model.addAttribute("sort", query.newestFirst() ? "newest" : "oldest");
+      model.addAttribute("statuses", TaskStatus.values());
+      model.addAttribute("listUrl", listUrl);
+   }
+
+   private static TaskCursor parseCursor(String token) {
+      if (token == null || token.isBlank()) {
+         return null;
+      }
+      try {
+         return TaskCursor.decode(token);
+      } catch (IllegalArgumentException ex) {
+         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+      }
+   }
+
+   // Paging links keep the current filters and replace only the cursor
+   private static String pageUrl(TaskListQuery query, String direction, String cursor) {
+      if (cursor == null) {
+         return null;
+      }
+      UriComponentsBuilder builder = UriComponentsBuilder.fromPath("/tasks");
+      if (query.status() != null) {
+         builder.queryParam("status", query.status());
+      }
+      if (query.assignTo() != null) {
+         builder.queryParam("assignTo", query.assignTo());
+      }
+      if (query.createdBy() != null) {
+         builder.queryParam("createdBy", query.createdBy());
+      }
+      return builder
+         .queryParam("sort", query.newestFirst() ? "newest" : "oldest")
+         .queryParam("size", query.size())
+         .queryParam(direction, cursor)
+         .encode()
+         .build()
+         .toUriString();
+   }
 }
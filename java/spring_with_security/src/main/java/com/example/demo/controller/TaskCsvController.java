@@ -0,0 +1,113 @@
+package com.example.demo.controller;
+
+import com.example.common.audit.AuditLog;
+import com.example.demo.model.TaskStatus;
+import com.example.demo.service.TaskCsvService;
+import com.example.demo.service.TaskImportJob;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * CSV import/export for tasks. An import is two requests so the client can
+ * poll progress while the upload runs: POST /tasks/import/jobs creates a job,
+ * PUT /tasks/import/jobs/{id} streams the CSV body into it (text/csv, not
+ * multipart, so the upload is never spooled or size-capped like form uploads)
+ * and GET /tasks/import/jobs/{id} reports progress.
+ */
+@Controller
+@RequestMapping("/tasks")
+public class TaskCsvController {
+
+   private static final String AUDIT_ENTITY = "task";
+   private static final String AUDIT_IMPORT_ENTITY = "task-import";
+
+   private final TaskCsvService csv;
+   private final AuditLog auditLog;
+
+   public TaskCsvController(TaskCsvService csv, AuditLog auditLog) {
+      this.csv = csv;
+      this.auditLog = auditLog;
+   }
+
+   @GetMapping("/import")
+   public String importPage() {
+      return "tasks/import";
+   }
+
+   @PostMapping("/import/jobs")
+   @ResponseBody
+   public ResponseEntity<Map<String, String>> createImport(Authentication auth) {
+      TaskImportJob job = csv.createJob(auth.getName());
+      return ResponseEntity.status(HttpStatus.CREATED)
+         .body(Map.of("id", job.id(), "url", "/tasks/import/jobs/" + job.id()));
+   }
+
+   @PutMapping(value = "/import/jobs/{id}", consumes = { "text/csv", "text/plain", "application/octet-stream" })
+   @ResponseBody
+   public ResponseEntity<?> runImport(@PathVariable String id, HttpServletRequest request, Authentication auth)
+      throws IOException {
+
+      TaskImportJob job = csv.findJob(id, auth.getName(), false).orElse(null);
+      if (job == null) {
+         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Import not found"));
+      }
+      if (job.state() != TaskImportJob.State.PENDING) {
+         return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Import has already run"));
+      }
+      try {
+         return ResponseEntity.ok(
+            csv.runImport(job, request.getInputStream(), request.getContentLengthLong(), isAdmin(auth)));
+      } finally {
+         // Also when the import failed part-way: rows committed before the failure stay
+         TaskImportJob.Progress progress = job.progress();
+         auditLog.record(AUDIT_IMPORT_ENTITY, job.id(), "import", progress.imported() + " task(s) imported, "
+            + progress.rejected() + " row(s) rejected, state=" + progress.state());
+      }
+   }
+
+   @GetMapping("/import/jobs/{id}")
+   @ResponseBody
+   public ResponseEntity<?> importProgress(@PathVariable String id, Authentication auth) {
+      return csv.findJob(id, auth.getName(), isAdmin(auth))
+         .<ResponseEntity<?>>map(job -> ResponseEntity.ok(job.progress()))
+         .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Import not found")));
+   }
+
+   // Same audience as /tasks/all: the export covers every user's tasks
+   @GetMapping("/export.csv")
+   @PreAuthorize("hasRole('ADMIN')")
+   public void export(
+      @RequestParam(required = false) TaskStatus status,
+      @RequestParam(required = false) String assignTo,
+      @RequestParam(required = false) String createdBy,
+      HttpServletResponse response) throws IOException {
+
+      response.setContentType("text/csv;charset=UTF-8");
+      response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\"");
+      Writer out = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+      long rows = csv.export(status, blankToNull(assignTo), blankToNull(createdBy), out);
+      auditLog.record(AUDIT_ENTITY, null, "export", rows + " task(s) exported");
+   }
+
+   private static boolean isAdmin(Authentication auth) {
+      return auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+   }
+
+   private static String blankToNull(String value) {
+      return value == null || value.isBlank() ? null : value.trim();
+   }
+}
@@ -1,92 +1,80 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.TaskType;
-import com.example.demo.model.User;
-import com.example.demo.repository.TaskTypeRepository;
-import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AppUserPrincipal;
+import com.example.demo.service.TaskTypeCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.security.Principal;
 import java.util.List;
 
 @Controller
 @RequestMapping("/task-types")
 public class TaskTypeController {
     
+    // Department check against the session principal - no user lookup per request
+    private static final String PROJECT_MANAGEMENT_ONLY = "principal.projectManagement";
+
+    // Reads come from the in-memory catalog; writes go through it to refresh every node
     @Autowired
-    private TaskTypeRepository taskTypeRepository;
-    
-    @Autowired
-    private UserRepository userRepository;
+    private TaskTypeCatalog taskTypeCatalog;
     
     // View all task types - EVERYONE can access
     @GetMapping
-    public String viewTaskTypes(Model model, Authentication authentication) {
-        String username = authentication.getName();
-        User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public String viewTaskTypes(Model model, Principal principal,
+                                @AuthenticationPrincipal AppUserPrincipal currentUser) {
+        List<TaskTypeCatalog.Entry> taskTypes = taskTypeCatalog.findAll();
         
-        List<TaskType> taskTypes = taskTypeRepository.findAll();
-        
-        // Check if user is from project_management department
-        boolean canEdit = "project_management".equalsIgnoreCase(currentUser.getDepartment());
+        // Check if user is from project_management department. currentUser is null for other
+        // principal types (sessions from before AppUserPrincipal, mock users): view only
+        boolean canEdit = currentUser != null && currentUser.isProjectManagement();
         
         model.addAttribute("taskTypes", taskTypes);
         model.addAttribute("canEdit", canEdit);
         model.addAttribute("currentUser", currentUser);
+        model.addAttribute("username", principal.getName());
         
         return "task-types";
     }
     
     // Show create form - Only project_management
     @GetMapping("/create")
-    public String showCreateForm(Model model, Authentication authentication, RedirectAttributes redirectAttributes) {
-        if (!isProjectManagement(authentication)) {
-            redirectAttributes.addFlashAttribute("error", "Access denied. Only Project Management can create task types.");
-            return "redirect:/task-types";
-        }
-        
+    @PreAuthorize(PROJECT_MANAGEMENT_ONLY)
+    public String showCreateForm(Model model) {
         model.addAttribute("taskType", new TaskType());
         return "task-type-form";
     }
     
     // Create task type - Only project_management
     @PostMapping("/create")
+    @PreAuthorize(PROJECT_MANAGEMENT_ONLY)
     public String createTaskType(@ModelAttribute TaskType taskType, 
-                                 Authentication authentication,
                                  RedirectAttributes redirectAttributes) {
-        if (!isProjectManagement(authentication)) {
-            redirectAttributes.addFlashAttribute("error", "Access denied. Only Project Management can create task types.");
-            return "redirect:/task-types";
-        }
-        
         // Check if name already exists
-        if (taskTypeRepository.existsByName(taskType.getName())) {
+        if (taskTypeCatalog.existsByName(taskType.getName())) {
             redirectAttributes.addFlashAttribute("error", "Task type with this name already exists.");
             return "redirect:/task-types/create";
         }
         
-        taskTypeRepository.save(taskType);
+        taskTypeCatalog.create(taskType.getName(), taskType.getDescription());
         redirectAttributes.addFlashAttribute("success", "Task type created successfully!");
         return "redirect:/task-types";
     }
     
     // Show edit form - Only project_management
     @GetMapping("/edit/{id}")
+    @PreAuthorize(PROJECT_MANAGEMENT_ONLY)
     public String showEditForm(@PathVariable Long id, 
-                              Model model, 
-                              Authentication authentication,
-                              RedirectAttributes redirectAttributes) {
-        if (!isProjectManagement(authentication)) {
-            redirectAttributes.addFlashAttribute("error", "Access denied. Only Project Management can edit task types.");
-            return "redirect:/task-types";
-        }
-        
-        TaskType taskType = taskTypeRepository.findById(id)
+                              Model model) {
+        TaskType taskType = taskTypeCatalog.findById(id)
+                .map(TaskTypeCatalog.Entry::toTaskType)
                 .orElseThrow(() -> new RuntimeException("Task type not found"));
         
         model.addAttribute("taskType", taskType);
@@ -96,28 +84,21 @@ public class TaskTypeController {
     
     // Update task type - Only project_management
     @PostMapping("/edit/{id}")
+    @PreAuthorize(PROJECT_MANAGEMENT_ONLY)
     public String updateTaskType(@PathVariable Long id,
                                 @ModelAttribute TaskType updatedTaskType,
-                                Authentication authentication,
                                 RedirectAttributes redirectAttributes) {
-        if (!isProjectManagement(authentication)) {
-            redirectAttributes.addFlashAttribute("error", "Access denied. Only Project Management can edit task types.");
-            return "redirect:/task-types";
-        }
-        
-        TaskType taskType = taskTypeRepository.findById(id)
+        TaskTypeCatalog.Entry taskType = taskTypeCatalog.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task type not found"));
         
         // Check if new name conflicts with existing (excluding current)
         if (!taskType.getName().equals(updatedTaskType.getName()) && 
-            taskTypeRepository.existsByName(updatedTaskType.getName())) {
+            taskTypeCatalog.existsByName(updatedTaskType.getName())) {
             redirectAttributes.addFlashAttribute("error", "Task type with this name already exists.");
             return "redirect:/task-types/edit/" + id;
         }
         
-        taskType.setName(updatedTaskType.getName());
-        taskType.setDescription(updatedTaskType.getDescription());
-        taskTypeRepository.save(taskType);
+        taskTypeCatalog.update(id, updatedTaskType.getName(), updatedTaskType.getDescription());
         
         redirectAttributes.addFlashAttribute("success", "Task type updated successfully!");
         return "redirect:/task-types";
@@ -125,26 +106,18 @@ public class TaskTypeController {
     
     // Delete task type - Only project_management
     @PostMapping("/delete/{id}")
+    @PreAuthorize(PROJECT_MANAGEMENT_ONLY)
     public String deleteTaskType(@PathVariable Long id,
-                                Authentication authentication,
                                 RedirectAttributes redirectAttributes) {
-        if (!isProjectManagement(authentication)) {
-            redirectAttributes.addFlashAttribute("error", "Access denied. Only Project Management can delete task types.");
-            return "redirect:/task-types";
-        }
-        
-        taskTypeRepository.deleteById(id);
+        taskTypeCatalog.delete(id);
         redirectAttributes.addFlashAttribute("success", "Task type deleted successfully!");
         return "redirect:/task-types";
     }
     
-    // Helper method to check if user is from project_management
-    private boolean isProjectManagement(Authentication authentication) {
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return "project_management".equalsIgnoreCase(user.getDepartment());
+    // Any @PreAuthorize rejection above - back to the list with a message
+    @ExceptionHandler(AccessDeniedException.class)
+    public String handleAccessDenied(RedirectAttributes redirectAttributes) {
+        redirectAttributes.addFlashAttribute("error", "Access denied. Only Project Management can manage task types.");
+        return "redirect:/task-types";
     }
 }
-
-
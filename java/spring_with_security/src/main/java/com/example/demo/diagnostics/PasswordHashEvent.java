@@ -0,0 +1,44 @@
+package com.example.demo.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.demo.PasswordHash")
+@Label("Password Hash")
+@Description("Argon2 encode or verify")
+@Category({ "SecureFromScratch Web", "Security" })
+@Enabled(false)
+@StackTrace(false)
+public class PasswordHashEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("encode or matches")
+    String operation;
+
+    @Label("Matched")
+    boolean matched;
+
+    @Label("Error")
+    @Description("Exception class when the operation failed, e.g. rejected for capacity")
+    String error;
+
+    public void finish(String operation, boolean matched) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.matched = matched;
+            commit();
+        }
+    }
+
+    public void fail(String operation, RuntimeException e) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.error = e.getClass().getSimpleName();
+            commit();
+        }
+    }
+}
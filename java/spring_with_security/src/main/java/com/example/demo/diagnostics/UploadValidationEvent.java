@@ -0,0 +1,42 @@
+package com.example.demo.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.demo.UploadValidation")
+@Label("Upload Validation")
+@Description("Path, extension and magic-byte checks on an uploaded file")
+@Category({ "SecureFromScratch Web", "Files" })
+@Enabled(false)
+@StackTrace(false)
+public class UploadValidationEvent extends jdk.jfr.Event {
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Extension")
+    String extension;
+
+    @Label("Accepted")
+    boolean accepted;
+
+    @Label("Reason")
+    @Description("Server-side rejection message")
+    String reason;
+
+    public void finish(long bytes, String extension, boolean accepted, String reason) {
+        if (shouldCommit()) {
+            this.bytes = bytes;
+            this.extension = extension;
+            this.accepted = accepted;
+            this.reason = reason;
+            commit();
+        }
+    }
+}
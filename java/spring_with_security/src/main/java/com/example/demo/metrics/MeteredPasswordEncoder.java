@@ -0,0 +1,75 @@
+package com.example.demo.metrics;
+
+import com.example.demo.diagnostics.PasswordHashEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times Argon2 hashing and verification (auth.password, tagged by operation)
+ * around the application's PasswordEncoder. Verification also emits a JFR
+ * PasswordHashEvent, since form login checks passwords outside UserService.
+ * A verification that throws (hashing capacity exceeded, malformed hash) is
+ * recorded as result=error, since those are the failed logins worth seeing.
+ */
+public class MeteredPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+    private final Timer errorTimer;
+
+    public MeteredPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(registry, "encode", "none");
+        this.matchTimer = timer(registry, "matches", "match");
+        this.mismatchTimer = timer(registry, "matches", "mismatch");
+        this.errorTimer = timer(registry, "matches", "error");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Timer timer = errorTimer;
+        try {
+            boolean matched = delegate.matches(rawPassword, encodedPassword);
+            event.finish("matches", matched);
+            timer = matched ? matchTimer : mismatchTimer;
+            return matched;
+        } catch (RuntimeException e) {
+            event.fail("matches", e);
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation, String result) {
+        return Timer.builder("auth.password")
+                .description("Password hashing and verification")
+                .tag("operation", operation)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-registered meters for the two upload endpoints.
+ *
+ * All (endpoint, outcome) combinations are registered at startup so a call
+ * only reads a field and records - no registry lookup or tag allocation.
+ */
+@Component
+public class UploadMetrics {
+
+    public enum Endpoint { FORM, EDITOR }
+
+    public enum Outcome { SUCCESS, REJECTED, ERROR }
+
+    private final Map<Endpoint, Map<Outcome, Timer>> timers = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, DistributionSummary> sizes = new EnumMap<>(Endpoint.class);
+
+    public UploadMetrics(MeterRegistry registry) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            String endpointTag = endpoint.name().toLowerCase(Locale.ROOT);
+
+            Map<Outcome, Timer> byOutcome = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                byOutcome.put(outcome, Timer.builder("upload.file")
+                        .description("File upload handling (validation and write)")
+                        .tag("endpoint", endpointTag)
+                        .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                        .publishPercentileHistogram()
+                        .register(registry));
+            }
+            timers.put(endpoint, byOutcome);
+
+            sizes.put(endpoint, DistributionSummary.builder("upload.file.size")
+                    .description("Size of accepted uploads")
+                    .baseUnit("bytes")
+                    .tag("endpoint", endpointTag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    public void record(Endpoint endpoint, long startNanos, Outcome outcome, long bytes) {
+        timers.get(endpoint).get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (outcome == Outcome.SUCCESS) {
+            sizes.get(endpoint).record(bytes);
+        }
+    }
+
+    /** Maps a finished response to an outcome: 2xx success, anything else rejected. */
+    public static Outcome outcomeOf(int status) {
+        return status >= 200 && status < 300 ? Outcome.SUCCESS : Outcome.REJECTED;
+    }
+}
@@ -19,6 +19,10 @@ public class Task {
    @Column(name = "description", length = 2000)
    private String description;
 
+   // Plain text of the description, indexed by the search_vector column (TaskService.create)
+   @Column(name = "search_text", length = 2000)
+   private String searchText;
+
    @Column(name = "created_by", updatable=false)
    private String createdBy;
 
@@ -33,6 +37,14 @@ public class Task {
    @Column(name = "create_date", updatable=false)
    private LocalDateTime createDate;
 
+   // When the task last became DONE; TaskArchiver ages DONE tasks by it
+   @Column(name = "done_at")
+   private LocalDateTime doneAt;
+
+   @Version
+   @Column(name = "version")
+   private Long version;
+
    @PrePersist
    public void onCreate() {
       if (createDate == null) {
@@ -41,6 +53,9 @@ public class Task {
       if (status == null) {
          status = TaskStatus.TODO;
       }
+      if (status == TaskStatus.DONE && doneAt == null) {
+         doneAt = LocalDateTime.now();
+      }
    }
 
    // getters and setters...
@@ -61,6 +76,10 @@ public class Task {
       return description;
    }
 
+   public String getSearchText() {
+      return searchText;
+   }
+
    public String getCreatedBy() {
       return createdBy;
    }
@@ -77,6 +96,14 @@ public class Task {
       return createDate;
    }
 
+   public LocalDateTime getDoneAt() {
+      return doneAt;
+   }
+
+   public Long getVersion() {
+      return version;
+   }
+
    // Add these to your Task.java
    public void setName(String name) {
       this.name = name;
@@ -86,6 +113,10 @@ public class Task {
       this.description = description;
    }
 
+   public void setSearchText(String searchText) {
+      this.searchText = searchText;
+   }
+
    public void setCreatedBy(String createdBy) {
       this.createdBy = createdBy;
    }
@@ -101,4 +132,12 @@ public class Task {
    public void setCreateDate(LocalDateTime createDate) {
       this.createDate = createDate;
    }
+
+   public void setDoneAt(LocalDateTime doneAt) {
+      this.doneAt = doneAt;
+   }
+
+   public void setVersion(Long version) {
+      this.version = version;
+   }
 }
\ No newline at end of file
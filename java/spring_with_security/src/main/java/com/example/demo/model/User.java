@@ -24,7 +24,11 @@ public class User {
 
     @Column(nullable = true)
     private String department; // "project_management", "development", "hr", etc.
-    
+
+    // Bumped in SQL by PrincipalRefreshRegistry only, never written through the entity
+    @Column(name = "principal_generation", nullable = false, insertable = false, updatable = false)
+    private long principalGeneration;
+
 
     // Default Constructor
     public User() {
@@ -83,6 +87,10 @@ public class User {
         return department;
     }
 
+    public long getPrincipalGeneration() {
+        return principalGeneration;
+    }
+
     public void setDepartment(String department) {
         this.department = department;
     }
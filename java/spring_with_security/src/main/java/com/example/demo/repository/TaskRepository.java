@@ -1,8 +1,108 @@
-// src/main/java/com/example/demo/repository/TaskRepository.java
 package com.example.demo.repository;
 
 import com.example.demo.model.Task;
+import com.example.demo.model.TaskStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-}
\ No newline at end of file
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+
+   // Matches come from the GIN index on search_vector; only the top rows are
+   // passed to ts_headline, which re-parses the text and is the costly part
+   @Query(value = """
+         SELECT hit.id AS "id", hit.name AS "name", hit.status AS "status", hit.assign_to AS "assignTo",
+                hit.rank AS "rank",
+                ts_headline('english', coalesce(hit.search_text, ''), hit.query, :headlineOptions) AS "snippet"
+         FROM (
+            SELECT t.id, t.name, t.status, t.assign_to, t.search_text, q.query,
+                   CAST(ts_rank_cd(t.search_vector, q.query) AS double precision) AS rank
+            FROM tasks t, websearch_to_tsquery('english', :terms) AS q(query)
+            WHERE t.search_vector @@ q.query
+            ORDER BY rank DESC, t.id
+            LIMIT :limit
+         ) hit
+         ORDER BY hit.rank DESC, hit.id
+         """, nativeQuery = true)
+   List<TaskSearchRow> search(@Param("terms") String terms,
+                              @Param("headlineOptions") String headlineOptions,
+                              @Param("limit") int limit);
+
+   // Same ranking over tasks_archive - the only read path for archived tasks
+   @Query(value = """
+         SELECT hit.id AS "id", hit.name AS "name", hit.status AS "status", hit.assign_to AS "assignTo",
+                hit.rank AS "rank",
+                ts_headline('english', coalesce(hit.search_text, ''), hit.query, :headlineOptions) AS "snippet"
+         FROM (
+            SELECT t.id, t.name, t.status, t.assign_to, t.search_text, q.query,
+                   CAST(ts_rank_cd(t.search_vector, q.query) AS double precision) AS rank
+            FROM tasks_archive t, websearch_to_tsquery('english', :terms) AS q(query)
+            WHERE t.search_vector @@ q.query
+            ORDER BY rank DESC, t.id
+            LIMIT :limit
+         ) hit
+         ORDER BY hit.rank DESC, hit.id
+         """, nativeQuery = true)
+   List<TaskSearchRow> searchArchive(@Param("terms") String terms,
+                                     @Param("headlineOptions") String headlineOptions,
+                                     @Param("limit") int limit);
+
+   // ---- bulk operations ----
+   // Every query carries the TaskService.delete rule (admin, or the task's creator)
+   // as a predicate, so tasks the caller may not touch are simply not matched.
+
+   // Rows the caller may change, locked so the UPDATE/DELETE that follows sees the same rows
+   @Lock(LockModeType.PESSIMISTIC_WRITE)
+   @Query("select t.id as id, t.status as status, t.assignTo as assignTo, t.createdBy as createdBy "
+         + "from Task t where t.id in :ids and (:admin = true or t.createdBy = :user)")
+   List<TaskBulkView> lockForBulk(@Param("ids") Collection<Long> ids,
+                                  @Param("user") String user,
+                                  @Param("admin") boolean admin);
+
+   @Modifying(flushAutomatically = true, clearAutomatically = true)
+   @Query("update Task t set t.assignTo = :assignTo, t.version = t.version + 1 "
+         + "where t.id in :ids and (:admin = true or t.createdBy = :user)")
+   int updateAssigneeByIdIn(@Param("ids") Collection<Long> ids,
+                            @Param("assignTo") String assignTo,
+                            @Param("user") String user,
+                            @Param("admin") boolean admin);
+
+   @Modifying(flushAutomatically = true, clearAutomatically = true)
+   @Query("update Task t set t.assignTo = :assignTo, t.version = t.version + 1 "
+         + "where t.assignTo = :fromAssignee and (:admin = true or t.createdBy = :user)")
+   int updateAssigneeByAssignee(@Param("fromAssignee") String fromAssignee,
+                                @Param("assignTo") String assignTo,
+                                @Param("user") String user,
+                                @Param("admin") boolean admin);
+
+   @Modifying(flushAutomatically = true, clearAutomatically = true)
+   // done_at as in TaskService.patch: kept if the status does not change, stamped when it becomes DONE
+   @Query("update Task t set t.status = :status, t.version = t.version + 1, "
+         + "t.doneAt = case when t.status = :status then t.doneAt when :done = true then local datetime else null end "
+         + "where t.id in :ids and (:admin = true or t.createdBy = :user)")
+   int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                          @Param("status") TaskStatus status,
+                          @Param("done") boolean done,
+                          @Param("user") String user,
+                          @Param("admin") boolean admin);
+
+   @Modifying(flushAutomatically = true, clearAutomatically = true)
+   @Query("delete from Task t where t.id in :ids and (:admin = true or t.createdBy = :user)")
+   int deleteByIdIn(@Param("ids") Collection<Long> ids,
+                    @Param("user") String user,
+                    @Param("admin") boolean admin);
+
+   interface TaskBulkView {
+      Long getId();
+      TaskStatus getStatus();
+      String getAssignTo();
+      String getCreatedBy();
+   }
+}
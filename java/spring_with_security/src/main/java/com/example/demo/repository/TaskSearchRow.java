@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+// Projection for TaskRepository.search; the snippet still carries the raw highlight markers
+public interface TaskSearchRow {
+
+   Long getId();
+
+   String getName();
+
+   String getStatus();
+
+   String getAssignTo();
+
+   Double getRank();
+
+   String getSnippet();
+}
@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Task;
+import com.example.demo.model.TaskStatus;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// Predicates for the paginated task list; a null argument means "no filter"
+public final class TaskSpecifications {
+
+   private TaskSpecifications() {
+   }
+
+   public static Specification<Task> hasStatus(TaskStatus status) {
+      return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+   }
+
+   public static Specification<Task> assignedTo(String assignTo) {
+      return (root, query, cb) -> assignTo == null ? null : cb.equal(root.get("assignTo"), assignTo);
+   }
+
+   public static Specification<Task> createdBy(String createdBy) {
+      return (root, query, cb) -> createdBy == null ? null : cb.equal(root.get("createdBy"), createdBy);
+   }
+
+   /**
+    * Rows strictly after (createDate, id) in the given direction.
+    * The redundant create_date range bound lets Postgres turn the seek into an
+    * index range condition instead of filtering the OR row by row.
+    */
+   public static Specification<Task> seekPast(LocalDateTime createDate, Long id, boolean descending) {
+      return (root, query, cb) -> {
+         if (createDate == null || id == null) {
+            return null;
+         }
+         var date = root.<LocalDateTime>get("createDate");
+         var taskId = root.<Long>get("id");
+         if (descending) {
+            return cb.and(
+               cb.lessThanOrEqualTo(date, createDate),
+               cb.or(cb.lessThan(date, createDate),
+                     cb.and(cb.equal(date, createDate), cb.lessThan(taskId, id))));
+         }
+         return cb.and(
+            cb.greaterThanOrEqualTo(date, createDate),
+            cb.or(cb.greaterThan(date, createDate),
+                  cb.and(cb.equal(date, createDate), cb.greaterThan(taskId, id))));
+      };
+   }
+}
@@ -2,6 +2,8 @@ package com.example.demo.repository;
 
 import com.example.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,9 +12,18 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     
     /**
-     * Find a user by their username
+     * Find a user by their username, ignoring case (usernames are unique that way, see V13)
+     * Compares lower() rather than upper() so it can use uq_users_username_lower
      */
-    Optional<User> findByUsername(String username);
+    @Query("select u from User u where lower(u.username) = lower(:username)")
+    Optional<User> findByUsernameIgnoreCase(@Param("username") String username);
+
+    /**
+     * Case-insensitive existence check for the username availability endpoint
+     * Compares lower() rather than upper() so it can use uq_users_username_lower
+     */
+    @Query("select count(u) > 0 from User u where lower(u.username) = lower(:username)")
+    boolean existsByUsernameIgnoreCase(@Param("username") String username);
     
     /**
      * Count total number of users in the database
@@ -0,0 +1,59 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Authenticated principal kept in the session. Carries the user id and
+ * department loaded at login, so authorization checks such as
+ * {@code @PreAuthorize("principal.projectManagement")} run in memory.
+ *
+ * {@code generation} is the {@link PrincipalRefreshRegistry} generation the
+ * principal was loaded at; {@link PrincipalRefreshFilter} reloads the
+ * principal when the user's generation moves on.
+ */
+public class AppUserPrincipal extends User {
+
+    public static final String PROJECT_MANAGEMENT = "project_management";
+
+    private final Long id;
+    private final String department;
+    private final long generation;
+
+    public AppUserPrincipal(
+            Long id,
+            String username,
+            String password,
+            boolean enabled,
+            Collection<? extends GrantedAuthority> authorities,
+            String department,
+            long generation) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+        this.department = department;
+        this.generation = generation;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public boolean isProjectManagement() {
+        return PROJECT_MANAGEMENT.equalsIgnoreCase(department);
+    }
+
+    /** Same principal with a new password hash (after rehash-on-login). */
+    public AppUserPrincipal withPassword(String newPassword) {
+        return new AppUserPrincipal(id, getUsername(), newPassword, isEnabled(), getAuthorities(), department, generation);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.demo.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Picks Argon2 parameters for this host at startup.
+ *
+ * Memory starts at the configured ceiling; iterations are scaled so one
+ * verification lands at or just under the target latency. If even one
+ * iteration is too slow the memory is halved, down to the OWASP floor of
+ * 19 MiB. The result is persisted with the host shape (CPU count, max heap)
+ * and reused on later starts until the target, ceiling or host changes.
+ *
+ * Stored hashes with weaker parameters are rehashed on their next successful
+ * login through {@code PasswordEncoder.upgradeEncoding}.
+ */
+public class Argon2Calibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(Argon2Calibrator.class);
+
+    public static final int SALT_LENGTH = 16; // bytes
+    public static final int HASH_LENGTH = 32; // bytes
+    public static final int PARALLELISM = 1;
+
+    private static final int MIN_MEMORY_KB = 19 * 1024;
+    private static final int MAX_ITERATIONS = 10;
+    private static final int SAMPLES = 3;
+    private static final String PROBE = "calibration-probe-Aa1!";
+
+    public record Argon2Settings(int memoryKb, int iterations, int parallelism) {
+
+        public Argon2PasswordEncoder toEncoder() {
+            return new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKb, iterations);
+        }
+    }
+
+    private final Path file;
+    private final Duration target;
+    private final int maxMemoryKb;
+    private final boolean recalibrate;
+
+    public Argon2Calibrator(Path file, Duration target, int maxMemoryKb, boolean recalibrate) {
+        this.file = file;
+        this.target = target;
+        this.maxMemoryKb = Math.max(maxMemoryKb, MIN_MEMORY_KB);
+        this.recalibrate = recalibrate;
+    }
+
+    public Argon2Settings resolve() {
+        if (!recalibrate) {
+            Argon2Settings stored = load();
+            if (stored != null) {
+                log.info("Using stored Argon2 calibration {} from {}", stored, file);
+                return stored;
+            }
+        }
+
+        Argon2Settings settings = calibrate();
+        store(settings);
+        return settings;
+    }
+
+    private Argon2Settings calibrate() {
+        long targetNanos = target.toNanos();
+        int memoryKb = maxMemoryKb;
+
+        while (true) {
+            long oneIteration = measure(new Argon2Settings(memoryKb, 1, PARALLELISM));
+            if (oneIteration <= targetNanos || memoryKb <= MIN_MEMORY_KB) {
+                // Cost is close to linear in iterations
+                int iterations = (int) Math.max(1, Math.min(MAX_ITERATIONS, targetNanos / Math.max(oneIteration, 1)));
+                // OWASP: below 46 MiB at least two passes
+                if (memoryKb < 46 * 1024) {
+                    iterations = Math.max(iterations, 2);
+                }
+                Argon2Settings settings = new Argon2Settings(memoryKb, iterations, PARALLELISM);
+                log.info("Calibrated Argon2 {}: ~{} ms per verification (target {} ms)",
+                        settings, measure(settings) / 1_000_000, target.toMillis());
+                return settings;
+            }
+            memoryKb = Math.max(MIN_MEMORY_KB, memoryKb / 2);
+        }
+    }
+
+    // Median verification time in nanoseconds, after one warm-up
+    private static long measure(Argon2Settings settings) {
+        Argon2PasswordEncoder encoder = settings.toEncoder();
+        String hash = encoder.encode(PROBE);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(PROBE, hash);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private Argon2Settings load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            log.warn("Could not read Argon2 calibration {}: {}", file, e.getMessage());
+            return null;
+        }
+        if (!hostShape().equals(props.getProperty("host"))
+                || !Long.toString(target.toMillis()).equals(props.getProperty("target-ms"))
+                || !Integer.toString(maxMemoryKb).equals(props.getProperty("max-memory-kb"))) {
+            log.info("Argon2 calibration in {} was made for a different host or target; recalibrating", file);
+            return null;
+        }
+        try {
+            return new Argon2Settings(
+                    Integer.parseInt(props.getProperty("memory-kb")),
+                    Integer.parseInt(props.getProperty("iterations")),
+                    Integer.parseInt(props.getProperty("parallelism")));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed Argon2 calibration {}", file);
+            return null;
+        }
+    }
+
+    private void store(Argon2Settings settings) {
+        Properties props = new Properties();
+        props.setProperty("memory-kb", Integer.toString(settings.memoryKb()));
+        props.setProperty("iterations", Integer.toString(settings.iterations()));
+        props.setProperty("parallelism", Integer.toString(settings.parallelism()));
+        props.setProperty("target-ms", Long.toString(target.toMillis()));
+        props.setProperty("max-memory-kb", Integer.toString(maxMemoryKb));
+        props.setProperty("host", hostShape());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                props.store(out, "Argon2 calibration " + Instant.now());
+            }
+        } catch (IOException e) {
+            // Not fatal: the next start calibrates again
+            log.warn("Could not persist Argon2 calibration to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String hostShape() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.availableProcessors() + "cpu/" + (rt.maxMemory() >> 20) + "mb";
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs encode and matches inside the {@link PasswordHashingBudget}, so form
+ * login and registration share one memory-bounded pool of Argon2 slots.
+ */
+public class BudgetedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingBudget budget;
+
+    public BudgetedPasswordEncoder(PasswordEncoder delegate, PasswordHashingBudget budget) {
+        this.delegate = delegate;
+        this.budget = budget;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return budget.run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return budget.run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
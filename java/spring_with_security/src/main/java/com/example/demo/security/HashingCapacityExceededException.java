@@ -0,0 +1,21 @@
+package com.example.demo.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a password hash cannot get a slot within the memory budget
+ * (queue full or wait timed out).
+ *
+ * Extends AuthenticationServiceException so form login routes it to the
+ * failure handler instead of surfacing as a 500; outside the filter chain
+ * it maps to 503.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class HashingCapacityExceededException extends AuthenticationServiceException {
+
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
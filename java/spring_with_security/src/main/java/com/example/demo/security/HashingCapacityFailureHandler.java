@@ -0,0 +1,39 @@
+package com.example.demo.security;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+
+import java.io.IOException;
+
+/**
+ * Form login failure handler: answers 503 with Retry-After when the Argon2
+ * budget is exhausted, otherwise the usual redirect to /login?error.
+ */
+public class HashingCapacityFailureHandler implements AuthenticationFailureHandler {
+
+    private final AuthenticationFailureHandler fallback = new SimpleUrlAuthenticationFailureHandler("/login?error");
+
+    @Override
+    public void onAuthenticationFailure(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            AuthenticationException exception) throws IOException, ServletException {
+
+        // The timing-attack guard for unknown users hashes inside retrieveUser, which wraps the exception
+        if (exception instanceof HashingCapacityExceededException
+                || exception.getCause() instanceof HashingCapacityExceededException) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many sign-ins in progress. Please try again in a moment.");
+            return;
+        }
+        fallback.onAuthenticationFailure(request, response, exception);
+    }
+}
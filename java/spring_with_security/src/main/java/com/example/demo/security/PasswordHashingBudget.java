@@ -0,0 +1,113 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caps the transient heap used by concurrent Argon2 hashes.
+ *
+ * Each hash holds one permit; the number of permits is the memory budget
+ * divided by the per-hash Argon2 memory cost. Callers beyond that wait in a
+ * bounded FIFO queue for at most queueTimeout. When the queue is full or the
+ * wait times out a {@link HashingCapacityExceededException} is thrown so the
+ * request fails fast with 503 instead of pushing the JVM out of memory.
+ */
+public class PasswordHashingBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingBudget.class);
+
+    private final Semaphore slots;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public PasswordHashingBudget(
+            long memoryBudgetKb,
+            long memoryPerHashKb,
+            int maxQueue,
+            Duration queueTimeout,
+            MeterRegistry registry) {
+        this.maxConcurrent = (int) Math.max(1, memoryBudgetKb / memoryPerHashKb);
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+
+        Gauge.builder("password.hashing.queue.depth", waiting, AtomicInteger::get)
+                .description("Password hashes waiting for a memory slot")
+                .register(registry);
+        Gauge.builder("password.hashing.active", slots, s -> maxConcurrent - s.availablePermits())
+                .description("Password hashes currently running")
+                .register(registry);
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time spent waiting for a memory slot")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejectedQueueFull = Counter.builder("password.hashing.rejected")
+                .tag("reason", "queue_full")
+                .register(registry);
+        this.rejectedTimeout = Counter.builder("password.hashing.rejected")
+                .tag("reason", "timeout")
+                .register(registry);
+
+        log.info("Password hashing budget: {} concurrent hashes ({} KB each), queue {} / {} ms",
+                maxConcurrent, memoryPerHashKb, maxQueue, queueTimeout.toMillis());
+    }
+
+    public <T> T run(Supplier<T> hash) {
+        acquire();
+        try {
+            return hash.get();
+        } finally {
+            slots.release();
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private void acquire() {
+        if (slots.tryAcquire()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            rejectedQueueFull.increment();
+            throw new HashingCapacityExceededException("Password hashing queue is full");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HashingCapacityExceededException("Interrupted while waiting for password hashing capacity");
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            rejectedTimeout.increment();
+            throw new HashingCapacityExceededException("Timed out waiting for password hashing capacity");
+        }
+    }
+}
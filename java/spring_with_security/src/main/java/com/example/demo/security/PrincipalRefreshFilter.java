@@ -0,0 +1,85 @@
+package com.example.demo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs right after the security context is loaded from the session. If the
+ * principal's generation is behind {@link PrincipalRefreshRegistry}, reloads it
+ * from the database and saves the new context back to the session; a user that
+ * no longer exists or is disabled is signed out.
+ */
+public class PrincipalRefreshFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PrincipalRefreshFilter.class);
+
+    private final PrincipalRefreshRegistry registry;
+    private final UserDetailsService userDetailsService;
+    private final SecurityContextHolderStrategy holder = SecurityContextHolder.getContextHolderStrategy();
+    private final SecurityContextRepository repository = new HttpSessionSecurityContextRepository();
+
+    public PrincipalRefreshFilter(PrincipalRefreshRegistry registry, UserDetailsService userDetailsService) {
+        this.registry = registry;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication authentication = holder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getPrincipal() instanceof AppUserPrincipal principal
+                && registry.isStale(principal)) {
+            refresh(principal, authentication, request, response);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void refresh(
+            AppUserPrincipal stale,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+
+        SecurityContext context = holder.createEmptyContext();
+        try {
+            UserDetails fresh = userDetailsService.loadUserByUsername(stale.getUsername());
+            if (fresh.isEnabled()) {
+                // As ProviderManager does after login: the session never holds the hash
+                if (fresh instanceof CredentialsContainer container) {
+                    container.eraseCredentials();
+                }
+                UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.authenticated(
+                        fresh, null, fresh.getAuthorities());
+                token.setDetails(authentication.getDetails());
+                context.setAuthentication(token);
+            }
+        } catch (UsernameNotFoundException e) {
+            log.info("Signing out deleted user {}", stale.getUsername());
+        }
+
+        holder.setContext(context);
+        repository.saveContext(context, request, response);
+    }
+}
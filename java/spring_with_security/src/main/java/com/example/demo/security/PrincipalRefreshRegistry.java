@@ -0,0 +1,129 @@
+package com.example.demo.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-user generation counter for session principals.
+ *
+ * The generation is users.principal_generation. Changing data carried by
+ * {@link AppUserPrincipal} (department, roles, enabled) calls
+ * {@link #markChanged} in the same transaction, which bumps the column and the
+ * principal_generations stamp in reference_data_version. Every session holding
+ * an older generation is reloaded on its next request by
+ * {@link PrincipalRefreshFilter}.
+ *
+ * The check stays a map lookup per request: each node keeps the generations of
+ * users that ever changed in memory, reloads them after its own commits and
+ * polls the stamp (as TaskTypeCatalog does) to pick up other nodes' changes,
+ * so a change made elsewhere reaches this node within one poll interval.
+ */
+@Component
+public class PrincipalRefreshRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(PrincipalRefreshRegistry.class);
+
+    private static final String VERSION_KEY = "principal_generations";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+
+    // Empty until the first load: no session is considered stale
+    private volatile Snapshot snapshot = new Snapshot(-1, Map.of());
+
+    public PrincipalRefreshRegistry(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        // REQUIRES_NEW: reload also runs from afterCommit, where the finished transaction is still bound
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialLoad() {
+        reload();
+    }
+
+    public long currentGeneration(String username) {
+        return snapshot.generations().getOrDefault(key(username), 0L);
+    }
+
+    /** Joins the caller's transaction if there is one; this node reloads after commit. */
+    public void markChanged(String username) {
+        tx.executeWithoutResult(status -> {
+            jdbcTemplate.update(
+                    "UPDATE users SET principal_generation = principal_generation + 1 WHERE lower(username) = ?",
+                    key(username));
+            jdbcTemplate.update(
+                    "UPDATE reference_data_version SET version = version + 1 WHERE name = ?", VERSION_KEY);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        });
+    }
+
+    public boolean isStale(AppUserPrincipal principal) {
+        return principal.getGeneration() < currentGeneration(principal.getUsername());
+    }
+
+    @Scheduled(fixedDelayString = "${app.reference-data.poll-interval:5s}",
+               initialDelayString = "${app.reference-data.poll-interval:5s}")
+    public void pollVersion() {
+        try {
+            if (readVersion() > snapshot.version()) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Principal generation poll failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        Snapshot next = readOnlyTx.execute(status -> {
+            // Version first, as in TaskTypeCatalog: a later change only makes the map newer than its stamp
+            long version = readVersion();
+            Map<String, Long> generations = new HashMap<>();
+            jdbcTemplate.query("SELECT lower(username), principal_generation FROM users WHERE principal_generation > 0",
+                    rs -> {
+                        generations.put(rs.getString(1), rs.getLong(2));
+                    });
+            return new Snapshot(version, Map.copyOf(generations));
+        });
+        if (next != null && next.version() >= snapshot.version()) {
+            snapshot = next;
+            log.debug("Principal generations reloaded: {} users at version {}", next.generations().size(), next.version());
+        }
+    }
+
+    private long readVersion() {
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT version FROM reference_data_version WHERE name = ?", Long.class, VERSION_KEY);
+        return version != null ? version : 0L;
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(long version, Map<String, Long> generations) {
+    }
+}
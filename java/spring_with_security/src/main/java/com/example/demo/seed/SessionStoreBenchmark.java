@@ -0,0 +1,164 @@
+package com.example.demo.seed;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.demo.security.AppUserPrincipal;
+import com.example.demo.session.SessionAttributeCodec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-request session overhead of the JDBC store against an in-memory store.
+ * Each simulated request does what SessionRepositoryFilter does around a
+ * request: load the session, read the security context, touch the last access
+ * time and save. "read" requests change nothing else; "write" requests also
+ * set one attribute, which is the only attribute written back.
+ *
+ *   --app.bench.session-store.enabled=true
+ *
+ * Also logs the encoded size of a logged-in SecurityContext with
+ * SessionAttributeCodec and with Java serialization. The sessions it creates
+ * are deleted afterwards. Off by default.
+ */
+@Component
+@Order(3)
+public class SessionStoreBenchmark implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStoreBenchmark.class);
+
+    private static final String CONTEXT_ATTRIBUTE = HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY;
+    private static final int WARMUP_REQUESTS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final ConversionService sessionConversionService;
+    private final boolean enabled;
+    private final int sessions;
+    private final int requests;
+
+    public SessionStoreBenchmark(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Qualifier("springSessionConversionService") ConversionService sessionConversionService,
+            @Value("${app.bench.session-store.enabled:false}") boolean enabled,
+            @Value("${app.bench.session-store.sessions:1000}") int sessions,
+            @Value("${app.bench.session-store.requests:5000}") int requests) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.sessionConversionService = sessionConversionService;
+        this.enabled = enabled;
+        this.sessions = Math.max(1, sessions);
+        this.requests = Math.max(1, requests);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        SecurityContext context = sampleContext();
+        ByteArrayOutputStream compact = new ByteArrayOutputStream();
+        new SessionAttributeCodec(getClass().getClassLoader()).serialize(context, compact);
+        ByteArrayOutputStream java = new ByteArrayOutputStream();
+        new DefaultSerializer().serialize(context, java);
+        logger.info("SecurityContext encoded: {} bytes compact, {} bytes Java serialization", compact.size(), java.size());
+
+        logger.info("Session store benchmark: {} sessions, {} requests per scenario", sessions, requests);
+        measure("memory", new MapSessionRepository(new ConcurrentHashMap<>()), context);
+
+        JdbcIndexedSessionRepository jdbc = new JdbcIndexedSessionRepository(jdbcTemplate, tx);
+        jdbc.setConversionService(sessionConversionService);
+        measure("jdbc", jdbc, context);
+    }
+
+    private <S extends Session> void measure(String store, SessionRepository<S> repository, SecurityContext context) {
+        List<String> ids = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            S session = repository.createSession();
+            session.setAttribute(CONTEXT_ATTRIBUTE, context);
+            repository.save(session);
+            ids.add(session.getId());
+        }
+        try {
+            SplittableRandom rnd = new SplittableRandom(42);
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                request(repository, ids.get(rnd.nextInt(ids.size())), i % 2 == 0);
+            }
+            for (boolean write : new boolean[] { false, true }) {
+                long[] nanos = new long[requests];
+                for (int i = 0; i < requests; i++) {
+                    String id = ids.get(rnd.nextInt(ids.size()));
+                    long started = System.nanoTime();
+                    request(repository, id, write);
+                    nanos[i] = System.nanoTime() - started;
+                }
+                Arrays.sort(nanos);
+                logger.info("session [{} {}]: p50={} ms p95={} ms p99={} ms max={} ms", store, write ? "write" : "read",
+                        millis(percentile(nanos, 50)), millis(percentile(nanos, 95)),
+                        millis(percentile(nanos, 99)), millis(nanos[nanos.length - 1]));
+            }
+        } finally {
+            ids.forEach(repository::deleteById);
+        }
+    }
+
+    private static <S extends Session> void request(SessionRepository<S> repository, String id, boolean write) {
+        S session = repository.findById(id);
+        if (session == null || session.getAttribute(CONTEXT_ATTRIBUTE) == null) {
+            throw new IllegalStateException("Session " + id + " lost its security context");
+        }
+        session.setLastAccessedTime(Instant.now());
+        if (write) {
+            session.setAttribute("lastPage", "/tasks?after=" + System.nanoTime());
+        }
+        repository.save(session);
+    }
+
+    // What form login leaves in the session once credentials have been erased
+    private static SecurityContext sampleContext() {
+        AppUserPrincipal principal = new AppUserPrincipal(42L, "synth_42", "", true,
+                AuthorityUtils.createAuthorityList("ROLE_USER"), AppUserPrincipal.PROJECT_MANAGEMENT, 0);
+        principal.eraseCredentials();
+        UsernamePasswordAuthenticationToken token =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+        token.setDetails(new WebAuthenticationDetails("10.0.0.42", "0f3c2a9e-5b7d-4c1e-8a6f-2d9b4e7c1a05"));
+        return new SecurityContextImpl(token);
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.seed;
+
+import static com.example.common.seed.CopyLoader.csv;
+import static com.example.common.seed.CopyLoader.pick;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import javax.sql.DataSource;
+
+import com.example.common.seed.CopyLoader;
+import com.example.demo.service.HtmlText;
+import com.example.demo.service.TaskCounters;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk-loads synthetic users and tasks for performance testing.
+ *
+ * The rows are written by the shared CopyLoader: parallel COPY streams whose
+ * contents depend only on the seed, so the same seed always produces the same
+ * dataset. Off by default - run once with --app.seed.synthetic.enabled=true.
+ */
+@Component
+@Order(1)
+public class SyntheticDataSeeder implements ApplicationRunner {
+
+    // Fixed anchor so generated timestamps do not depend on when the seeder runs
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final String[] DEPARTMENTS = { "development", "development", "development", "qa",
+            "project_management", "hr" };
+    private static final String[] VERBS = { "Fix", "Implement", "Review", "Document", "Refactor", "Test", "Deploy", "Design" };
+    private static final String[] AREAS = { "login page", "task list", "file upload", "REST API", "database schema",
+            "search", "dashboard", "session handling", "CSV import", "audit log" };
+    private static final String[] DETAILS = { "edge cases", "error messages", "performance", "input validation",
+            "access control", "logging", "unit tests", "accessibility" };
+    // Used as assignees when no synthetic users are generated in the same run
+    private static final String[] DEMO_USERS = { "Or", "Dev1", "Dev2", "Dev3", "QA1", "PM1" };
+
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final SyntheticSeedProperties props;
+    private final TaskCounters taskCounters;
+
+    public SyntheticDataSeeder(DataSource dataSource, PasswordEncoder passwordEncoder, SyntheticSeedProperties props,
+            TaskCounters taskCounters) {
+        this.dataSource = dataSource;
+        this.passwordEncoder = passwordEncoder;
+        this.props = props;
+        this.taskCounters = taskCounters;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!props.isEnabled()) {
+            return;
+        }
+        CopyLoader loader = new CopyLoader(dataSource, props.getWriters(), props.getSeed());
+
+        // One precomputed hash for every synthetic user - they all share the seed password,
+        // and hashing millions of passwords individually would dominate the load time
+        String passwordHash = passwordEncoder.encode(props.getPassword());
+
+        long userCount = props.getUsers();
+        long userBaseId = loader.maxId("users");
+
+        loader.seedTable("users", "COPY users (id, username, password, roles, enabled, department) FROM STDIN WITH (FORMAT csv)",
+                userCount, 1, (out, id, rnd) -> {
+                    out.append(id).append(',');
+                    csv(out, "synth_" + id);
+                    out.append(',');
+                    csv(out, passwordHash);
+                    out.append(",\"USER\",true,");
+                    csv(out, pick(rnd, DEPARTMENTS));
+                    out.append('\n');
+                });
+
+        loader.seedTable("tasks",
+                "COPY tasks (id, name, description, search_text, created_by, assign_to, status, create_date, done_at) FROM STDIN WITH (FORMAT csv)",
+                props.getTasks(), 2, (out, id, rnd) -> {
+                    out.append(id).append(',');
+                    csv(out, pick(rnd, VERBS) + " " + pick(rnd, AREAS));
+                    out.append(',');
+                    String description = description(rnd);
+                    csv(out, description);
+                    out.append(',');
+                    // search_vector is generated by Postgres from this column
+                    csv(out, HtmlText.toPlainText(description));
+                    out.append(',');
+                    csv(out, username(rnd, userBaseId, userCount));
+                    out.append(',');
+                    csv(out, username(rnd, userBaseId, userCount));
+                    out.append(',');
+                    String status = taskStatus(rnd);
+                    LocalDateTime created = EPOCH.minusMinutes(rnd.nextLong(2L * 365 * 24 * 60));
+                    out.append(status).append(',').append(created).append(',');
+                    if ("DONE".equals(status)) {
+                        // An empty unquoted field is NULL for the other statuses
+                        out.append(created.plusMinutes(rnd.nextLong(30L * 24 * 60)));
+                    }
+                    out.append('\n');
+                });
+
+        // COPY bypasses TaskService, so the dashboard counters are rebuilt from the table
+        if (props.getTasks() > 0) {
+            taskCounters.reconcile();
+        }
+    }
+
+    private static String description(SplittableRandom rnd) {
+        // Rich-text descriptions, as the TinyMCE editor would store them
+        StringBuilder sb = new StringBuilder("<p>Please look at the ");
+        sb.append(pick(rnd, AREAS)).append(" and check the following:</p><ul>");
+        int items = 1 + rnd.nextInt(4);
+        for (int i = 0; i < items; i++) {
+            sb.append("<li>").append(pick(rnd, DETAILS)).append("</li>");
+        }
+        sb.append("</ul>");
+        return sb.toString();
+    }
+
+    private static String username(SplittableRandom rnd, long userBaseId, long userCount) {
+        if (userCount <= 0) {
+            return pick(rnd, DEMO_USERS);
+        }
+        return "synth_" + (userBaseId + 1 + rnd.nextLong(userCount));
+    }
+
+    private static String taskStatus(SplittableRandom rnd) {
+        int p = rnd.nextInt(100);
+        if (p < 30) {
+            return "TODO";
+        }
+        return p < 50 ? "IN_PROGRESS" : "DONE";
+    }
+}
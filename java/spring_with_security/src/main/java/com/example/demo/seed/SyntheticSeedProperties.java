@@ -0,0 +1,64 @@
+package com.example.demo.seed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.seed.synthetic")
+public class SyntheticSeedProperties {
+
+    private boolean enabled = false;
+    private long users = 0;
+    private long tasks = 0;
+    private int writers = Runtime.getRuntime().availableProcessors();
+    private long seed = 42;
+    private String password = "ChangeMe123!";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public void setUsers(long users) {
+        this.users = users;
+    }
+
+    public long getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(long tasks) {
+        this.tasks = tasks;
+    }
+
+    public int getWriters() {
+        return writers;
+    }
+
+    public void setWriters(int writers) {
+        this.writers = writers;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.seed;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.demo.service.TaskService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency benchmark for TaskService.search, meant to run against the synthetic
+ * dataset (1M tasks by default). Runs after SyntheticDataSeeder, so both can be
+ * done in one launch:
+ *
+ *   --app.seed.synthetic.enabled=true --app.bench.task-search.enabled=true
+ *
+ * Logs p50/p95/max per query and the EXPLAIN ANALYZE plan of the first one, which
+ * should show a bitmap scan on idx_tasks_search_vector. Off by default.
+ */
+@Component
+@Order(2)
+public class TaskSearchBenchmark implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchBenchmark.class);
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int RESULT_LIMIT = 20;
+
+    private final TaskService taskService;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int iterations;
+    private final List<String> queries;
+
+    public TaskSearchBenchmark(TaskService taskService, JdbcTemplate jdbcTemplate,
+            @Value("${app.bench.task-search.enabled:false}") boolean enabled,
+            @Value("${app.bench.task-search.iterations:50}") int iterations,
+            @Value("${app.bench.task-search.queries:login,performance,\"access control\",review -logging,dashboard or audit}") String[] queries) {
+        this.taskService = taskService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.iterations = Math.max(1, iterations);
+        this.queries = Arrays.asList(queries);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        // Fresh statistics after a bulk COPY, otherwise the planner guesses row counts
+        jdbcTemplate.execute("ANALYZE tasks");
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class);
+        logger.info("Task search benchmark: {} tasks, {} iterations per query", rows, iterations);
+
+        for (String query : queries) {
+            long[] nanos = new long[iterations];
+            int hits = 0;
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                taskService.search(query, RESULT_LIMIT);
+            }
+            for (int i = 0; i < iterations; i++) {
+                long started = System.nanoTime();
+                hits = taskService.search(query, RESULT_LIMIT).size();
+                nanos[i] = System.nanoTime() - started;
+            }
+            Arrays.sort(nanos);
+            logger.info("search [{}]: {} hits, p50={} ms p95={} ms max={} ms", query, hits,
+                    millis(percentile(nanos, 50)), millis(percentile(nanos, 95)), millis(nanos[nanos.length - 1]));
+        }
+
+        if (!queries.isEmpty()) {
+            explain(queries.get(0));
+        }
+    }
+
+    private void explain(String query) {
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN (ANALYZE, BUFFERS) SELECT t.id FROM tasks t, websearch_to_tsquery('english', ?) AS q(query) "
+                        + "WHERE t.search_vector @@ q.query ORDER BY ts_rank_cd(t.search_vector, q.query) DESC, t.id LIMIT ?",
+                String.class, query, RESULT_LIMIT);
+        logger.info("Plan for [{}]:\n{}", query, String.join("\n", plan));
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+}
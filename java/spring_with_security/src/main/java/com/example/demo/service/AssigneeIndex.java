@@ -0,0 +1,253 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Prefix index of enabled usernames for assignee autocomplete.
+ *
+ * Users are kept in sorted arrays (lowercased keys beside the username and
+ * department), one for all users and one per department. A lookup is a binary
+ * search for the prefix followed by a scan of at most limit entries, so it
+ * never touches the database. Readers see an immutable snapshot; writers
+ * (registration, department change) build the next one copy-on-write: a copy
+ * of the all-users arrays and of the department's arrays, plus a copy of the
+ * small department map. That is fine at signup rates. A periodic rebuild
+ * picks up changes made on other nodes.
+ */
+@Service
+public class AssigneeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AssigneeIndex.class);
+
+    public static final int MAX_LIMIT = 50;
+
+    public record Suggestion(String username, String department) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+
+    // Empty until the first build
+    private volatile Snapshot snapshot = new Snapshot(SortedNames.EMPTY, Map.of());
+
+    public AssigneeIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setReadOnly(true);
+    }
+
+    /** Up to limit usernames starting with prefix (case-insensitive), in name order. */
+    public List<Suggestion> suggest(String prefix, String department, int limit) {
+        Snapshot current = snapshot;
+        SortedNames names = department == null || department.isBlank()
+                ? current.all()
+                : current.byDepartment().getOrDefault(department.trim(), SortedNames.EMPTY);
+        String key = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        List<Suggestion> result = new ArrayList<>();
+        names.forPrefix(key, Math.max(1, Math.min(limit, MAX_LIMIT)), result::add);
+        return result;
+    }
+
+    public synchronized void registered(String username, String department) {
+        snapshot = snapshot.with(username, department);
+    }
+
+    public synchronized void departmentChanged(String username, String department) {
+        snapshot = snapshot.without(username).with(username, department);
+    }
+
+    // After startup runners, so users bulk-loaded by SyntheticDataSeeder are included
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialBuild() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.assignee-index.rebuild-interval:10m}",
+               initialDelayString = "${app.assignee-index.rebuild-interval:10m}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Assignee index rebuild failed, keeping the current one: {}", e.getMessage());
+        }
+    }
+
+    // Holds the writer lock for the scan, so no registration is lost between load and swap
+    public synchronized void rebuild() {
+        List<Suggestion> users = new ArrayList<>();
+        Map<String, List<Suggestion>> grouped = new HashMap<>();
+        tx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT username, department FROM users WHERE enabled",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(5000);
+            return ps;
+        }, (ResultSet rs) -> {
+            Suggestion user = new Suggestion(rs.getString(1), rs.getString(2));
+            users.add(user);
+            if (user.department() != null) {
+                grouped.computeIfAbsent(user.department(), d -> new ArrayList<>()).add(user);
+            }
+        }));
+
+        Map<String, SortedNames> byDepartment = new HashMap<>();
+        grouped.forEach((department, members) -> byDepartment.put(department, SortedNames.of(members)));
+
+        snapshot = new Snapshot(SortedNames.of(users), Map.copyOf(byDepartment));
+        log.debug("Assignee index rebuilt: {} users, {} departments", users.size(), byDepartment.size());
+    }
+
+    // The department of each user lives in the SortedNames entries, so a write copies arrays, not a per-user map
+    private record Snapshot(SortedNames all, Map<String, SortedNames> byDepartment) {
+
+        Snapshot with(String username, String department) {
+            Suggestion user = new Suggestion(username, department);
+            Map<String, SortedNames> nextByDepartment = byDepartment;
+            if (department != null) {
+                nextByDepartment = new HashMap<>(byDepartment);
+                nextByDepartment.put(department, byDepartment.getOrDefault(department, SortedNames.EMPTY).with(user));
+                nextByDepartment = Map.copyOf(nextByDepartment);
+            }
+            return new Snapshot(all.with(user), nextByDepartment);
+        }
+
+        Snapshot without(String username) {
+            Suggestion user = all.find(username);
+            if (user == null) {
+                return this;
+            }
+            if (user.department() == null) {
+                return new Snapshot(all.without(username), byDepartment);
+            }
+            Map<String, SortedNames> nextByDepartment = new HashMap<>(byDepartment);
+            nextByDepartment.put(user.department(), byDepartment.get(user.department()).without(username));
+            return new Snapshot(all.without(username), Map.copyOf(nextByDepartment));
+        }
+    }
+
+    /** Immutable sorted arrays of lowercased keys and the users (name, department) they came from. */
+    static final class SortedNames {
+
+        static final SortedNames EMPTY = new SortedNames(new String[0], new Suggestion[0]);
+
+        private final String[] keys;
+        private final Suggestion[] users;
+
+        private SortedNames(String[] keys, Suggestion[] users) {
+            this.keys = keys;
+            this.users = users;
+        }
+
+        static SortedNames of(List<Suggestion> users) {
+            Suggestion[] sorted = users.toArray(Suggestion[]::new);
+            Arrays.sort(sorted, (a, b) -> {
+                int byKey = key(a.username()).compareTo(key(b.username()));
+                return byKey != 0 ? byKey : a.username().compareTo(b.username());
+            });
+            String[] keys = new String[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = key(sorted[i].username());
+            }
+            return new SortedNames(keys, sorted);
+        }
+
+        void forPrefix(String prefix, int limit, Consumer<Suggestion> sink) {
+            int i = lowerBound(prefix);
+            for (int n = 0; i < keys.length && n < limit && keys[i].startsWith(prefix); i++, n++) {
+                sink.accept(users[i]);
+            }
+        }
+
+        /** The entry with exactly this name, or null. */
+        Suggestion find(String name) {
+            int i = indexOf(name);
+            return i >= 0 ? users[i] : null;
+        }
+
+        /** Adds user, or replaces the entry with the same name when the department differs. */
+        SortedNames with(Suggestion user) {
+            String name = user.username();
+            String key = key(name);
+            int at = lowerBound(key);
+            // Names differing only in case are ordered by the name itself, as in of()
+            while (at < keys.length && keys[at].equals(key) && users[at].username().compareTo(name) < 0) {
+                at++;
+            }
+            if (at < keys.length && users[at].username().equals(name)) {
+                if (Objects.equals(users[at].department(), user.department())) {
+                    return this;
+                }
+                Suggestion[] replaced = users.clone();
+                replaced[at] = user;
+                return new SortedNames(keys, replaced);
+            }
+            return new SortedNames(insert(keys, at, key), insert(users, at, user));
+        }
+
+        SortedNames without(String name) {
+            int i = indexOf(name);
+            return i >= 0 ? new SortedNames(remove(keys, i), remove(users, i)) : this;
+        }
+
+        private int indexOf(String name) {
+            String key = key(name);
+            for (int i = lowerBound(key); i < keys.length && keys[i].equals(key); i++) {
+                if (users[i].username().equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // First index whose key is >= value
+        private int lowerBound(String value) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(value) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static <T> T[] insert(T[] array, int at, T value) {
+            T[] next = Arrays.copyOf(array, array.length + 1);
+            next[at] = value;
+            System.arraycopy(array, at, next, at + 1, array.length - at);
+            return next;
+        }
+
+        private static <T> T[] remove(T[] array, int at) {
+            T[] next = Arrays.copyOf(array, array.length - 1);
+            System.arraycopy(array, at + 1, next, at, array.length - at - 1);
+            return next;
+        }
+
+        private static String key(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+}
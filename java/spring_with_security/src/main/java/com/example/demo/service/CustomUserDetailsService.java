@@ -2,34 +2,67 @@ package com.example.demo.service;
 
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AppUserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
     /**
      * Load user by username for Spring Security authentication
-     * This method is called automatically by Spring Security during login
+     * This method is called automatically by Spring Security during login,
+     * and by PrincipalRefreshFilter when a session's principal is out of date
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Find user in database
-        User user = userRepository.findByUsername(username)
+        // Find user in database; usernames are unique ignoring case, so "alice" logs in as "Alice"
+        User user = userRepository.findByUsernameIgnoreCase(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        // Convert our User entity to Spring Security UserDetails
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword()) // Already hashed in database
-                .roles(user.getRoles().split(",")) // Split "ADMIN,USER" into ["ADMIN", "USER"]
-                .disabled(!user.isEnabled())
-                .build();
+        // Convert our User entity to a principal that also carries id and department
+        String[] roles = Arrays.stream(user.getRoles().split(",")) // Split "ADMIN,USER" into ["ADMIN", "USER"]
+                .map(String::trim)
+                .map(role -> "ROLE_" + role)
+                .toArray(String[]::new);
+
+        return new AppUserPrincipal(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(), // Already hashed in database
+                user.isEnabled(),
+                AuthorityUtils.createAuthorityList(roles),
+                user.getDepartment(),
+                user.getPrincipalGeneration()); // from the same row, so it always matches the data
+    }
+
+    /**
+     * Store a rehashed password after a successful login
+     * Called by Spring Security when PasswordEncoder.upgradeEncoding() reports the
+     * stored hash was made with weaker (pre-calibration) Argon2 parameters
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsernameIgnoreCase(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+
+        if (userDetails instanceof AppUserPrincipal principal) {
+            return principal.withPassword(newPassword);
+        }
+        return loadUserByUsername(user.getUsername());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import java.util.Locale;
+
+/**
+ * Extracts the visible text from editor HTML for the search index.
+ * Not a sanitizer - the output is plain text and must still be escaped when rendered.
+ */
+public final class HtmlText {
+
+   private HtmlText() {
+   }
+
+   public static String toPlainText(String html) {
+      if (html == null || html.isEmpty()) {
+         return html;
+      }
+      StringBuilder out = new StringBuilder(html.length());
+      int i = 0;
+      while (i < html.length()) {
+         char c = html.charAt(i);
+         if (c == '<') {
+            int end = html.indexOf('>', i);
+            if (end < 0) {
+               break;
+            }
+            String tag = html.substring(i + 1, end).trim().toLowerCase(Locale.ROOT);
+            i = end + 1;
+            // Drop embedded code entirely; every other tag is just a word break
+            if (tag.startsWith("script") || tag.startsWith("style")) {
+               int close = html.toLowerCase(Locale.ROOT).indexOf("</" + tag.split("[\\s/]", 2)[0], i);
+               i = close < 0 ? html.length() : close;
+            }
+            out.append(' ');
+         } else if (c == '&') {
+            int end = html.indexOf(';', i);
+            String decoded = end > i && end - i <= 10 ? decodeEntity(html.substring(i + 1, end)) : null;
+            if (decoded == null) {
+               out.append(c);
+               i++;
+            } else {
+               out.append(decoded);
+               i = end + 1;
+            }
+         } else {
+            out.append(Character.isISOControl(c) ? ' ' : c);
+            i++;
+         }
+      }
+      return out.toString().replaceAll("\\s+", " ").trim();
+   }
+
+   private static String decodeEntity(String entity) {
+      switch (entity) {
+         case "amp": return "&";
+         case "lt": return "<";
+         case "gt": return ">";
+         case "quot": return "\"";
+         case "apos": return "'";
+         case "nbsp": return " ";
+         default:
+            break;
+      }
+      try {
+         int codePoint;
+         if (entity.startsWith("#x") || entity.startsWith("#X")) {
+            codePoint = Integer.parseInt(entity.substring(2), 16);
+         } else if (entity.startsWith("#")) {
+            codePoint = Integer.parseInt(entity.substring(1));
+         } else {
+            return null;
+         }
+         // Control characters are reserved for the search highlight markers
+         return Character.isISOControl(codePoint) ? " " : Character.toString(codePoint);
+      } catch (IllegalArgumentException ex) {
+         // not a valid code point - keep the text as written
+      }
+      return null;
+   }
+}
@@ -0,0 +1,248 @@
+package com.example.demo.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Serves stored upload files (GET and HEAD) for FileUploadController and
+ * EditorImageController. Callers resolve and sandbox the path first.
+ *
+ * - Uploads are stored under fresh UUID names and never rewritten, so those
+ *   are cached by the browser for a year as immutable. The cache is private,
+ *   because media are only served to logged-in users.
+ * - Strong ETags come from name, size and mtime. If-None-Match answers 304.
+ * - A single "Range: bytes=..." is honoured, also under If-Range. Multiple
+ *   ranges get the whole file, which the spec allows.
+ * - Content types come from a fixed allow-list of raster image extensions;
+ *   anything else (SVG included, which can carry script) is sent as
+ *   application/octet-stream. They sit with the ETag in a metadata map keyed
+ *   by path, refreshed only when the file's size or mtime changes, so a
+ *   request costs one stat.
+ * - Bodies go out via Tomcat's sendfile when the connector supports it, so
+ *   the kernel copies file to socket. Otherwise FileChannel.transferTo
+ *   writes into the response channel.
+ */
+@Service
+public class MediaFileServer {
+
+    private static final Pattern UUID_NAME = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.[a-z0-9]+");
+    private static final Map<String, String> TYPES_BY_EXTENSION = Map.of(
+            "png", MediaType.IMAGE_PNG_VALUE,
+            "jpg", MediaType.IMAGE_JPEG_VALUE,
+            "jpeg", MediaType.IMAGE_JPEG_VALUE,
+            "gif", MediaType.IMAGE_GIF_VALUE,
+            "webp", "image/webp");
+
+    // Request attributes of Tomcat's sendfile support (see DefaultServlet)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private record Metadata(long size, long lastModified, String contentType, String etag) {
+    }
+
+    record Range(long start, long end) {
+
+        static final Range UNSATISFIABLE = new Range(-1, -2);
+
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    private final Map<Path, Metadata> metadata = new ConcurrentHashMap<>();
+    private final int maxCachedEntries;
+    private final long sendfileMinBytes;
+    private final String immutableCacheControl;
+
+    public MediaFileServer(@Value("${app.media.metadata-cache-size:10000}") int maxCachedEntries,
+                           @Value("${app.media.sendfile-min-size:48KB}") DataSize sendfileMinSize,
+                           @Value("${app.media.max-age:365d}") Duration maxAge) {
+        this.maxCachedEntries = Math.max(1, maxCachedEntries);
+        this.sendfileMinBytes = sendfileMinSize.toBytes();
+        this.immutableCacheControl = CacheControl.maxAge(maxAge).cachePrivate().immutable().getHeaderValue();
+    }
+
+    public void serve(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Metadata meta = metadata(file);
+        if (meta == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.ETAG, meta.etag());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, UUID_NAME.matcher(file.getFileName().toString()).matches()
+                ? immutableCacheControl
+                : CacheControl.noCache().cachePrivate().getHeaderValue());
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), meta.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        Range range = null;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(meta.etag()))) {
+            range = parseRange(rangeHeader, meta.size());
+            if (range == Range.UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + meta.size());
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+        if (range == null) {
+            range = new Range(0, meta.size() - 1);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + "-" + range.end() + "/" + meta.size());
+        }
+
+        response.setContentType(meta.contentType());
+        response.setContentLengthLong(Math.max(0, range.length()));
+        if ("HEAD".equals(request.getMethod()) || range.length() <= 0) {
+            return;
+        }
+
+        if (range.length() >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat writes the bytes after this request returns; nothing may be written here
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+        transfer(file, range, response);
+    }
+
+    private static void transfer(Path file, Range range, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // One stat per request; the content type is only resolved again when the file changed
+    private Metadata metadata(Path file) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            metadata.remove(file);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        Metadata cached = metadata.get(file);
+        if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+            return cached;
+        }
+        String name = file.getFileName().toString();
+        String etag = "\"" + Integer.toHexString(name.hashCode()) + "-" + Long.toHexString(size)
+                + "-" + Long.toHexString(lastModified) + "\"";
+        Metadata fresh = new Metadata(size, lastModified, contentType(name), etag);
+        if (metadata.size() >= maxCachedEntries) {
+            // Rarely reached; a full reset is simpler than LRU bookkeeping on every hit
+            metadata.clear();
+        }
+        metadata.put(file, fresh);
+        return fresh;
+    }
+
+    static String contentType(String name) {
+        String extension = StringUtils.getFilenameExtension(name);
+        String known = extension == null ? null : TYPES_BY_EXTENSION.get(extension.toLowerCase(Locale.ROOT));
+        return known != null ? known : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "bytes=a-b", "bytes=a-" or "bytes=-n". Unparsable, reversed and multi-range headers are
+    // ignored (null, whole file); a valid range outside the file is UNSATISFIABLE
+    static Range parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return Range.UNSATISFIABLE;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                long requestedEnd = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0 || requestedEnd < start) {
+                    return null;
+                }
+                end = Math.min(requestedEnd, size - 1);
+            }
+            if (start >= size) {
+                return Range.UNSATISFIABLE;
+            }
+            return new Range(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
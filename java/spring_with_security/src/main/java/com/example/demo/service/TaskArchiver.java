@@ -0,0 +1,125 @@
+package com.example.demo.service;
+
+import com.example.common.jdbc.LockedBatchJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves tasks that have been DONE for longer than app.archive.done-older-than (by
+ * tasks.done_at) from tasks to tasks_archive. Open task boards are told to reload
+ * after a run that moved rows.
+ *
+ * Each batch is one short transaction: a DELETE ... RETURNING of at most
+ * batch-size rows feeding an INSERT into the archive. Rows locked by a
+ * concurrent edit are skipped (SKIP LOCKED) rather than waited for, and
+ * lock_timeout bounds any other wait. Batching, pacing against
+ * target-batch-time and the one-node-at-a-time lock come from LockedBatchJob.
+ */
+@Service
+public class TaskArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private static final String MOVE_BATCH = """
+            WITH moved AS (
+                DELETE FROM tasks
+                WHERE id IN (
+                    SELECT id FROM tasks
+                    WHERE status = 'DONE' AND done_at < ?
+                    ORDER BY done_at, id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING id, name, description, search_text, created_by, assign_to, status, create_date, version,
+                          done_at
+            )
+            INSERT INTO tasks_archive (id, name, description, search_text, created_by, assign_to, status,
+                                       create_date, version, done_at)
+            SELECT id, name, description, search_text, created_by, assign_to, status, create_date, version, done_at
+            FROM moved
+            RETURNING status, assign_to, created_by
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskCounters counters;
+    private final ApplicationEventPublisher events;
+    private final LockedBatchJob job;
+
+    private final boolean enabled;
+    private final Duration doneOlderThan;
+    private final long lockTimeoutMillis;
+
+    public TaskArchiver(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        TaskCounters counters,
+                        ApplicationEventPublisher events,
+                        @Value("${app.archive.enabled:true}") boolean enabled,
+                        @Value("${app.archive.done-older-than:90d}") Duration doneOlderThan,
+                        @Value("${app.archive.batch-size:500}") int batchSize,
+                        @Value("${app.archive.max-batches-per-run:200}") int maxBatchesPerRun,
+                        @Value("${app.archive.pause:200ms}") Duration pause,
+                        @Value("${app.archive.max-pause:5s}") Duration maxPause,
+                        @Value("${app.archive.target-batch-time:250ms}") Duration targetBatchTime,
+                        @Value("${app.archive.lock-timeout:2s}") Duration lockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.counters = counters;
+        this.events = events;
+        this.job = new LockedBatchJob("task-archive", jdbcTemplate, transactionManager)
+                .batchSize(batchSize)
+                .maxBatchesPerRun(maxBatchesPerRun)
+                .pause(pause, maxPause, targetBatchTime);
+        this.enabled = enabled;
+        this.doneOlderThan = doneOlderThan;
+        this.lockTimeoutMillis = lockTimeout.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval:15m}",
+               initialDelayString = "${app.archive.initial-delay:1m}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.warn("Task archiving failed: {}", e.getMessage());
+        }
+    }
+
+    /** Runs batches until nothing is left, the per-run cap is hit or another node holds the lock. Returns rows moved. */
+    public long archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(doneOlderThan);
+        LockedBatchJob.Result result = job.batches(() -> moveBatch(cutoff));
+        if (result.rows() > 0) {
+            log.info("Archived {} tasks DONE before {} in {} batches", result.rows(), cutoff, result.batches());
+            events.publishEvent(TaskEvent.refresh());
+        }
+        return result.rows();
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeoutMillis + "ms'");
+
+        List<String[]> rows = jdbcTemplate.query(MOVE_BATCH,
+                (rs, i) -> new String[] { rs.getString("status"), rs.getString("assign_to"), rs.getString("created_by") },
+                Timestamp.valueOf(cutoff), job.batchSize());
+
+        if (!rows.isEmpty()) {
+            // Archived tasks leave the live counts; applied after this batch commits
+            TaskCounters.Batch deltas = counters.batch();
+            rows.forEach(row -> deltas.removed(row[0], row[1], row[2]));
+            deltas.apply();
+        }
+        return rows.size();
+    }
+}
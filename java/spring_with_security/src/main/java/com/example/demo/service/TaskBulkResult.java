@@ -0,0 +1,11 @@
+package com.example.demo.service;
+
+import java.util.List;
+
+// Outcome of a bulk operation; ids the caller may not change, or that do not exist, are not in affectedIds
+public record TaskBulkResult(int requested, List<Long> affectedIds) {
+
+   public int skipped() {
+      return requested - affectedIds.size();
+   }
+}
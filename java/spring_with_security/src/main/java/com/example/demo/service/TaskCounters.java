@@ -0,0 +1,271 @@
+package com.example.demo.service;
+
+import com.example.common.jdbc.LockedBatchJob;
+import com.example.demo.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Task counts per status, assignee and creator, maintained incrementally.
+ *
+ * TaskService reports every create, patch and delete here as +1/-1 deltas on
+ * striped LongAdders, so the write path never touches the counters table. The
+ * deltas are flushed periodically as one batched upsert, after which the
+ * dashboard snapshot is rebuilt. Requests only read that snapshot.
+ *
+ * Counters can drift (a crash between commit and flush, bulk SQL that bypasses
+ * TaskService, the seeder's COPY), so reconcile() periodically rebuilds the
+ * table from tasks. A delta still waiting on another node at that moment is
+ * counted twice until the next reconcile.
+ */
+@Service
+public class TaskCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskCounters.class);
+
+    public static final String STATUS = "status";
+    public static final String ASSIGNEE = "assignee";
+    public static final String CREATOR = "creator";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LockedBatchJob reconcileJob;
+    private final int topN;
+
+    private final ConcurrentHashMap<CounterKey, LongAdder> pending = new ConcurrentHashMap<>();
+    // Empty until the first refresh
+    private volatile Dashboard dashboard = Dashboard.EMPTY;
+
+    public TaskCounters(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.task-counters.top-n:20}") int topN) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reconcileJob = new LockedBatchJob("task-counters-reconcile", jdbcTemplate, transactionManager);
+        this.topN = topN;
+    }
+
+    /** Precomputed dashboard; no database access. */
+    public Dashboard dashboard() {
+        return dashboard;
+    }
+
+    // ---- deltas from TaskService ----
+
+    public void taskCreated(Task task) {
+        apply(task.getStatus() == null ? null : task.getStatus().name(), task.getAssignTo(), task.getCreatedBy(), 1);
+    }
+
+    public void taskDeleted(Task task) {
+        apply(task.getStatus() == null ? null : task.getStatus().name(), task.getAssignTo(), task.getCreatedBy(), -1);
+    }
+
+    /** Collects the deltas of a set-based change, applied together after commit. */
+    public Batch batch() {
+        return new Batch();
+    }
+
+    public final class Batch {
+
+        private final Map<CounterKey, Long> deltas = new HashMap<>();
+
+        private Batch() {
+        }
+
+        public Batch move(String dimension, String from, String to, long count) {
+            if (count != 0 && !key(from).equals(key(to))) {
+                merge(dimension, from, -count);
+                merge(dimension, to, count);
+            }
+            return this;
+        }
+
+        public Batch created(String status, String assignTo, String createdBy) {
+            merge(STATUS, status, 1);
+            merge(ASSIGNEE, assignTo, 1);
+            merge(CREATOR, createdBy, 1);
+            return this;
+        }
+
+        public Batch removed(String status, String assignTo, String createdBy) {
+            merge(STATUS, status, -1);
+            merge(ASSIGNEE, assignTo, -1);
+            merge(CREATOR, createdBy, -1);
+            return this;
+        }
+
+        public void apply() {
+            Map<CounterKey, Long> collected = Map.copyOf(deltas);
+            afterCommit(() -> collected.forEach((k, delta) -> add(k.dimension(), k.key(), delta)));
+        }
+
+        private void merge(String dimension, String key, long delta) {
+            deltas.merge(new CounterKey(dimension, key(key)), delta, Long::sum);
+        }
+    }
+
+    private void apply(String status, String assignTo, String createdBy, long delta) {
+        afterCommit(() -> {
+            add(STATUS, status, delta);
+            add(ASSIGNEE, assignTo, delta);
+            add(CREATOR, createdBy, delta);
+        });
+    }
+
+    private void add(String dimension, String key, long delta) {
+        pending.computeIfAbsent(new CounterKey(dimension, key(key)), k -> new LongAdder()).add(delta);
+    }
+
+    // Rolled-back writes must not move the counters
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value;
+    }
+
+    // ---- flush, refresh, reconcile ----
+
+    /** Writes pending deltas and rebuilds the snapshot, which also picks up other nodes' flushes. */
+    @Scheduled(fixedDelayString = "${app.task-counters.flush-interval:2s}",
+               initialDelayString = "${app.task-counters.flush-interval:2s}")
+    public void flushAndRefresh() {
+        try {
+            flush();
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Task counter flush failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<CounterKey, LongAdder> entry : pending.entrySet()) {
+            // sumThenReset is not atomic with concurrent adds, but an add that lands
+            // in between is simply left in the adder for the next flush
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                batch.add(new Object[] { entry.getKey().dimension(), entry.getKey().key(), delta });
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO task_counters (dimension, key, count) VALUES (?, ?, ?)
+                    ON CONFLICT (dimension, key) DO UPDATE SET count = task_counters.count + EXCLUDED.count
+                    """, batch);
+        } catch (RuntimeException e) {
+            // Put the deltas back so they are retried on the next flush
+            for (Object[] row : batch) {
+                add((String) row[0], (String) row[1], (Long) row[2]);
+            }
+            throw e;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialRefresh() {
+        refresh();
+    }
+
+    public void refresh() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT key, count FROM task_counters WHERE dimension = ? ORDER BY key",
+                rs -> {
+                    byStatus.put(rs.getString("key"), rs.getLong("count"));
+                }, STATUS);
+        long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        dashboard = new Dashboard(Collections.unmodifiableMap(byStatus), top(ASSIGNEE), top(CREATOR),
+                total, Instant.now());
+    }
+
+    private List<Count> top(String dimension) {
+        return List.copyOf(jdbcTemplate.query(
+                "SELECT key, count FROM task_counters WHERE dimension = ? AND count > 0 ORDER BY count DESC, key LIMIT ?",
+                (rs, i) -> new Count(rs.getString("key"), rs.getLong("count")), dimension, topN));
+    }
+
+    /** Rebuilds the counters from tasks. Returns the number of corrected rows, or -1 if another node holds the lock. */
+    @Scheduled(fixedDelayString = "${app.task-counters.reconcile-interval:1h}",
+               initialDelayString = "${app.task-counters.reconcile-interval:1h}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Task counter reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    public long reconcile() {
+        flush();
+        long corrected = reconcileJob.once(status -> {
+            // Blocks other nodes' flushes until commit, so none land between count and rewrite
+            jdbcTemplate.execute("LOCK TABLE task_counters IN EXCLUSIVE MODE");
+            jdbcTemplate.execute("""
+                    CREATE TEMPORARY TABLE task_counters_actual ON COMMIT DROP AS
+                    SELECT 'status' AS dimension, COALESCE(status, '') AS key, COUNT(*) AS count
+                      FROM tasks GROUP BY COALESCE(status, '')
+                    UNION ALL
+                    SELECT 'assignee', COALESCE(assign_to, ''), COUNT(*) FROM tasks GROUP BY COALESCE(assign_to, '')
+                    UNION ALL
+                    SELECT 'creator', COALESCE(created_by, ''), COUNT(*) FROM tasks GROUP BY COALESCE(created_by, '')
+                    """);
+            Long drift = jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM task_counters c
+                    FULL JOIN task_counters_actual a ON a.dimension = c.dimension AND a.key = c.key
+                    WHERE COALESCE(c.count, 0) <> COALESCE(a.count, 0)
+                    """, Long.class);
+            if (drift != null && drift > 0) {
+                jdbcTemplate.update("DELETE FROM task_counters");
+                jdbcTemplate.update("INSERT INTO task_counters (dimension, key, count) "
+                        + "SELECT dimension, key, count FROM task_counters_actual");
+            }
+            return drift == null ? 0L : drift;
+        }).orElse(-1L);
+        if (corrected > 0) {
+            log.warn("Task counters reconciled: {} rows had drifted", corrected);
+            refresh();
+        }
+        return corrected;
+    }
+
+    private record CounterKey(String dimension, String key) {
+    }
+
+    public record Count(String key, long count) {
+    }
+
+    public record Dashboard(Map<String, Long> byStatus, List<Count> topAssignees, List<Count> topCreators,
+                            long total, Instant refreshedAt) {
+        static final Dashboard EMPTY = new Dashboard(Map.of(), List.of(), List.of(), 0, Instant.EPOCH);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 CSV support for task import/export: one record is
+ * held in memory at a time, and a single field is capped so a malformed file
+ * (an unterminated quote, say) cannot make the reader buffer the whole upload.
+ */
+public final class TaskCsv {
+
+    public static final List<String> COLUMNS =
+            List.of("name", "description", "created_by", "assign_to", "status", "create_date");
+
+    // A cell starting with one of these is evaluated as a formula by spreadsheets
+    private static final String FORMULA_START = "=+-@\t\r";
+
+    private TaskCsv() {
+    }
+
+    public static void writeRecord(Writer out, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writeField(out, value.toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    /** Undoes the ' that writeField puts in front of a cell that would read as a formula. */
+    public static String unescapeFormula(String value) {
+        if (value != null && !value.isEmpty() && value.charAt(0) == '\'' && looksLikeFormula(value.substring(1))) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    // A formula start, possibly behind ' escapes of its own: escaping those too keeps import lossless
+    private static boolean looksLikeFormula(String value) {
+        int i = 0;
+        while (i < value.length() && value.charAt(i) == '\'') {
+            i++;
+        }
+        return i < value.length() && FORMULA_START.indexOf(value.charAt(i)) >= 0;
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        boolean formula = looksLikeFormula(value);
+        if (!quote && !formula) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        if (formula) {
+            out.write('\'');
+        }
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /** Reads records one at a time; fails on a field longer than maxFieldLength. */
+    public static final class RecordReader implements AutoCloseable {
+
+        private final java.io.Reader in;
+        private final int maxFieldLength;
+        private long line = 1;
+        private int pushedBack = -2;
+
+        public RecordReader(java.io.Reader in, int maxFieldLength) {
+            this.in = in;
+            this.maxFieldLength = maxFieldLength;
+        }
+
+        /** Line number the next record starts on (1-based). */
+        public long line() {
+            return line;
+        }
+
+        /** Next record, or null at end of input. */
+        public List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean afterQuote = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new CsvFormatException("Unterminated quoted field", line);
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            append(field, '"');
+                        } else {
+                            quoted = false;
+                            afterQuote = true;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        append(field, (char) c);
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    afterQuote = false;
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            unread(next);
+                        }
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                    quoted = true;
+                } else if (afterQuote) {
+                    throw new CsvFormatException("Unexpected character after closing quote", line);
+                } else {
+                    append(field, (char) c);
+                }
+                c = read();
+            }
+        }
+
+        private void append(StringBuilder field, char c) {
+            if (field.length() >= maxFieldLength) {
+                throw new CsvFormatException("Field longer than " + maxFieldLength + " characters", line);
+            }
+            field.append(c);
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        private void unread(int c) {
+            pushedBack = c;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    public static final class CsvFormatException extends RuntimeException {
+
+        public CsvFormatException(String message, long line) {
+            super(message + " (line " + line + ")");
+        }
+    }
+}
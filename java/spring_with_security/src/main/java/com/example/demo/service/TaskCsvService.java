@@ -0,0 +1,366 @@
+package com.example.demo.service;
+
+import com.example.demo.model.TaskStatus;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CSV import and export of tasks, both in constant memory.
+ *
+ * Import reads the request body one record at a time, validates each row on
+ * its own (a bad row is reported with its line number and skipped) and writes
+ * valid rows with JDBC batch inserts, one transaction per batch, so a long
+ * import never holds a large transaction open and its progress is durable.
+ * Only admins may set created_by; everyone else's rows are created as theirs.
+ *
+ * Export reads from a forward-only cursor with a fetch size, writing each row
+ * as it arrives; the result set is never materialized.
+ */
+@Service
+public class TaskCsvService {
+
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 2000;
+    private static final int MAX_USER_LENGTH = 255;
+    // Largest legal field plus slack; anything longer is a malformed file
+    private static final int MAX_FIELD_LENGTH = 4 * MAX_DESCRIPTION_LENGTH;
+
+    private static final String INSERT = """
+            INSERT INTO tasks (name, description, search_text, created_by, assign_to, status, create_date, version, done_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, CASE WHEN CAST(? AS varchar) = 'DONE' THEN LOCALTIMESTAMP END)
+            """;
+
+    private static final String EXPORT = """
+            SELECT name, description, created_by, assign_to, status, create_date
+            FROM tasks
+            WHERE (CAST(? AS varchar) IS NULL OR status = ?)
+              AND (CAST(? AS varchar) IS NULL OR assign_to = ?)
+              AND (CAST(? AS varchar) IS NULL OR created_by = ?)
+            ORDER BY create_date, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final TaskCounters counters;
+    private final ApplicationEventPublisher events;
+
+    private final int batchSize;
+    private final int maxErrors;
+    private final int fetchSize;
+    private final Duration jobRetention;
+
+    private final Map<String, TaskImportJob> jobs = new ConcurrentHashMap<>();
+
+    public TaskCsvService(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          TaskCounters counters,
+                          ApplicationEventPublisher events,
+                          @Value("${app.task-csv.batch-size:1000}") int batchSize,
+                          @Value("${app.task-csv.max-errors:100}") int maxErrors,
+                          @Value("${app.task-csv.fetch-size:1000}") int fetchSize,
+                          @Value("${app.task-csv.job-retention:1h}") Duration jobRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.counters = counters;
+        this.events = events;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = Math.max(0, maxErrors);
+        this.fetchSize = Math.max(1, fetchSize);
+        this.jobRetention = jobRetention;
+    }
+
+    // ---- import ----
+
+    public TaskImportJob createJob(String owner) {
+        TaskImportJob job = new TaskImportJob(UUID.randomUUID().toString(), owner, maxErrors);
+        jobs.put(job.id(), job);
+        return job;
+    }
+
+    /** The job, if it exists and belongs to user (admins see every job). */
+    public Optional<TaskImportJob> findJob(String id, String user, boolean admin) {
+        TaskImportJob job = jobs.get(id);
+        if (job == null || !(admin || job.owner().equals(user))) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Imports body into the job's tasks on the calling thread. A format error
+     * that makes the rest of the file unreadable fails the job; rows committed
+     * before it stay.
+     *
+     * @param totalBytes the body length if known, else -1 (used for progress only)
+     */
+    public TaskImportJob.Progress runImport(TaskImportJob job, InputStream body, long totalBytes, boolean admin) {
+        if (!job.start(totalBytes)) {
+            throw new IllegalStateException("Import " + job.id() + " has already run");
+        }
+        try {
+            importRows(job, body, admin);
+            job.finish(TaskImportJob.State.DONE, null);
+        } catch (TaskCsv.CsvFormatException | IllegalArgumentException e) {
+            job.finish(TaskImportJob.State.FAILED, e.getMessage());
+        } catch (IOException | UncheckedIOException e) {
+            job.finish(TaskImportJob.State.FAILED, "Upload interrupted: " + e.getMessage());
+        } catch (RuntimeException e) {
+            job.finish(TaskImportJob.State.FAILED, "Import failed: " + e.getMessage());
+            throw e;
+        } finally {
+            // Open boards reload once rather than receiving an event per imported row
+            if (job.imported.get() > 0) {
+                events.publishEvent(TaskEvent.refresh());
+            }
+        }
+        return job.progress();
+    }
+
+    private void importRows(TaskImportJob job, InputStream body, boolean admin) throws IOException {
+        InputStream counted = new CountingInputStream(body, job);
+        TaskCsv.RecordReader reader = new TaskCsv.RecordReader(
+                new BufferedReader(new InputStreamReader(counted, StandardCharsets.UTF_8)), MAX_FIELD_LENGTH);
+
+        Map<String, Integer> columns = readHeader(reader.next());
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        while (true) {
+            long line = reader.line();
+            List<String> record = reader.next();
+            if (record == null) {
+                break;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            job.rowsRead.incrementAndGet();
+            try {
+                batch.add(toRow(record, columns, job.owner(), admin));
+            } catch (IllegalArgumentException e) {
+                job.reject(line, e.getMessage());
+                continue;
+            }
+            if (batch.size() == batchSize) {
+                insert(batch, job);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch, job);
+        }
+    }
+
+    static Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).strip().toLowerCase(Locale.ROOT);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            if (!TaskCsv.COLUMNS.contains(name)) {
+                throw new IllegalArgumentException("Unknown column '" + name + "', expected " + TaskCsv.COLUMNS);
+            }
+            if (columns.put(name, i) != null) {
+                throw new IllegalArgumentException("Duplicate column '" + name + "'");
+            }
+        }
+        if (!columns.containsKey("name")) {
+            throw new IllegalArgumentException("The header must include a 'name' column");
+        }
+        return columns;
+    }
+
+    private static Object[] toRow(List<String> record, Map<String, Integer> columns, String user, boolean admin) {
+        String name = field(record, columns, "name");
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        checkLength("name", name, MAX_NAME_LENGTH);
+
+        String description = field(record, columns, "description");
+        checkLength("description", description, MAX_DESCRIPTION_LENGTH);
+
+        String createdBy = admin ? field(record, columns, "created_by") : null;
+        if (createdBy == null) {
+            createdBy = user;
+        }
+        checkLength("created_by", createdBy, MAX_USER_LENGTH);
+
+        String assignTo = field(record, columns, "assign_to");
+        checkLength("assign_to", assignTo, MAX_USER_LENGTH);
+
+        String status = field(record, columns, "status");
+        TaskStatus taskStatus = TaskStatus.TODO;
+        if (status != null) {
+            try {
+                taskStatus = TaskStatus.valueOf(status.toUpperCase(Locale.ROOT).replace(' ', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("status must be one of " + Arrays.toString(TaskStatus.values()));
+            }
+        }
+
+        String createDate = field(record, columns, "create_date");
+        LocalDateTime created = createDate == null ? LocalDateTime.now() : parseDate(createDate);
+
+        String searchText = HtmlText.toPlainText(description);
+        if (searchText != null && searchText.length() > MAX_DESCRIPTION_LENGTH) {
+            searchText = searchText.substring(0, MAX_DESCRIPTION_LENGTH);
+        }
+        // status once more for done_at
+        return new Object[] { name, description, searchText, createdBy, assignTo, taskStatus.name(),
+                Timestamp.valueOf(created), taskStatus.name() };
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        // Exported cells carry a ' against formula injection; it is not part of the value
+        String value = TaskCsv.unescapeFormula(record.get(index).strip());
+        return value.isEmpty() ? null : value;
+    }
+
+    private static void checkLength(String column, String value, int max) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(column + " is longer than " + max + " characters");
+        }
+    }
+
+    // ISO date-time (2024-05-01T09:30:00), with a space separator, or a plain date
+    private static LocalDateTime parseDate(String value) {
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            return LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("create_date '" + value + "' is not an ISO date or date-time");
+        }
+    }
+
+    private void insert(List<Object[]> rows, TaskImportJob job) {
+        tx.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+            TaskCounters.Batch deltas = counters.batch();
+            for (Object[] row : rows) {
+                deltas.created((String) row[5], (String) row[4], (String) row[3]);
+            }
+            deltas.apply();
+        });
+        job.imported.addAndGet(rows.size());
+    }
+
+    /** Drops finished jobs after app.task-csv.job-retention, and jobs that were never started. */
+    @Scheduled(fixedDelayString = "${app.task-csv.job-cleanup-interval:5m}")
+    public void evictJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> switch (job.state()) {
+            case PENDING -> job.createdAt().isBefore(cutoff);
+            case RUNNING -> false;
+            case DONE, FAILED -> job.finishedAt().isBefore(cutoff);
+        });
+    }
+
+    // ---- export ----
+
+    /** Writes the matching tasks, oldest first, in the import format. Admins only (see controller). */
+    @Transactional(readOnly = true)
+    public long export(TaskStatus status, String assignTo, String createdBy, Writer out) throws IOException {
+        TaskCsv.writeRecord(out, TaskCsv.COLUMNS);
+        String statusName = status == null ? null : status.name();
+        long[] rows = { 0 };
+        // Postgres only streams with a fetch size inside a transaction (autocommit off)
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, statusName);
+            ps.setString(2, statusName);
+            ps.setString(3, assignTo);
+            ps.setString(4, assignTo);
+            ps.setString(5, createdBy);
+            ps.setString(6, createdBy);
+            return ps;
+        }, (ResultSet rs) -> {
+            Timestamp created = rs.getTimestamp("create_date");
+            try {
+                TaskCsv.writeRecord(out, Arrays.asList(
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getString("created_by"),
+                        rs.getString("assign_to"),
+                        rs.getString("status"),
+                        created == null ? null : created.toLocalDateTime()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        out.flush();
+        return rows[0];
+    }
+
+    // Feeds upload progress into the job as the reader pulls bytes
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final TaskImportJob job;
+
+        CountingInputStream(InputStream in, TaskImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.bytesRead.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                job.bytesRead.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the task list: the (createDate, id) of the row a page starts
+ * after. Passed to the browser as an opaque URL-safe token.
+ */
+public record TaskCursor(LocalDateTime createDate, Long id) {
+
+   public String encode() {
+      String raw = createDate + "|" + id;
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+   }
+
+   public static TaskCursor decode(String token) {
+      try {
+         String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+         int sep = raw.indexOf('|');
+         if (sep < 0) {
+            throw new IllegalArgumentException("Invalid page cursor");
+         }
+         return new TaskCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+      } catch (DateTimeParseException | IllegalArgumentException ex) {
+         throw new IllegalArgumentException("Invalid page cursor", ex);
+      }
+   }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Task;
+
+/**
+ * Change notification pushed to open task boards (TaskEventBroadcaster).
+ * For UPDATED, null fields were not changed; REFRESH means "too many rows
+ * changed to list, reload".
+ */
+public record TaskEvent(Type type, Long id, String name, String status, String assignTo) {
+
+   public enum Type { CREATED, UPDATED, DELETED, REFRESH }
+
+   static TaskEvent created(Task task) {
+      return new TaskEvent(Type.CREATED, task.getId(), task.getName(), statusOf(task), task.getAssignTo());
+   }
+
+   static TaskEvent updated(Long id, TaskPatch patch) {
+      return new TaskEvent(Type.UPDATED, id, patch.name(),
+         patch.status() == null ? null : patch.status().name(), patch.assignTo());
+   }
+
+   static TaskEvent deleted(Long id) {
+      return new TaskEvent(Type.DELETED, id, null, null, null);
+   }
+
+   static TaskEvent refresh() {
+      return new TaskEvent(Type.REFRESH, null, null, null, null);
+   }
+
+   private static String statusOf(Task task) {
+      return task.getStatus() == null ? null : task.getStatus().name();
+   }
+}
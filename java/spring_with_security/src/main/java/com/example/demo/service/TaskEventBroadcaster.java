@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans TaskEvents out to open task boards over server-sent events.
+ *
+ * Connections are async servlet requests (SseEmitter), so an idle board holds
+ * no thread. Each subscriber has a small bounded queue; a publish only enqueues,
+ * and the actual socket writes happen on a virtual thread per draining
+ * subscriber, so one slow client never delays the others or the publisher. A
+ * subscriber whose queue overflows, whose write fails, or whose connection
+ * reaches max-connection-age is dropped; the browser's EventSource reconnects
+ * on its own. Heartbeats keep proxies from timing out quiet connections and
+ * flush out dead ones.
+ */
+@Service
+public class TaskEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEventBroadcaster.class);
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final long maxConnectionAgeMillis;
+
+    public TaskEventBroadcaster(@Value("${app.task-events.queue-capacity:64}") int queueCapacity,
+                                @Value("${app.task-events.max-subscribers:2000}") int maxSubscribers,
+                                @Value("${app.task-events.max-connection-age:30m}") Duration maxConnectionAge) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxSubscribers = maxSubscribers;
+        this.maxConnectionAgeMillis = maxConnectionAge.toMillis();
+    }
+
+    /** Registers a new board connection, or throws IllegalStateException when at capacity. */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many live task board connections");
+        }
+        SseEmitter emitter = new SseEmitter(maxConnectionAgeMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscriber.drop("max connection age reached"));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    // Runs after the publishing transaction commits, or right away outside one
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.task-events.heartbeat:15s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(s -> s.drop("shutting down"));
+        senders.shutdown();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(Object message) {
+            if (!queue.offer(message)) {
+                drop("slow consumer, queue full");
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object message;
+                while ((message = queue.poll()) != null) {
+                    // Builders are single-use, so each subscriber builds its own
+                    if (message == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        emitter.send(SseEmitter.event().name("task").data(message, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                drop("write failed: " + ex.getMessage());
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An offer may have landed after the last poll but before the flag was cleared
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void drop(String reason) {
+            if (subscribers.remove(this)) {
+                log.debug("Dropping task board connection: {}", reason);
+                queue.clear();
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException ignored) {
+                    // already completed by the container
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one CSV import. Counters are updated by the importing request
+ * and read by progress polls from other requests; only the first maxErrors
+ * rejected rows are kept, so a bad file cannot grow the job without bound.
+ */
+public final class TaskImportJob {
+
+    public enum State { PENDING, RUNNING, DONE, FAILED }
+
+    public record RowError(long line, String message) {
+    }
+
+    public record Progress(String id, State state, long bytesRead, long totalBytes, long rowsRead,
+                           long imported, long rejected, List<RowError> errors, String message,
+                           Instant startedAt, Instant finishedAt) {
+    }
+
+    private final String id;
+    private final String owner;
+    private final int maxErrors;
+    private final Instant createdAt = Instant.now();
+
+    final AtomicLong bytesRead = new AtomicLong();
+    final AtomicLong rowsRead = new AtomicLong();
+    final AtomicLong imported = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile State state = State.PENDING;
+    private volatile long totalBytes = -1;
+    private volatile String message;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    TaskImportJob(String id, String owner, int maxErrors) {
+        this.id = id;
+        this.owner = owner;
+        this.maxErrors = maxErrors;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    Instant createdAt() {
+        return createdAt;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    synchronized boolean start(long totalBytes) {
+        if (state != State.PENDING) {
+            return false;
+        }
+        this.totalBytes = totalBytes;
+        this.startedAt = Instant.now();
+        this.state = State.RUNNING;
+        return true;
+    }
+
+    void reject(long line, String message) {
+        rejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    void finish(State state, String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.state = state;
+    }
+
+    public Progress progress() {
+        List<RowError> copy;
+        synchronized (errors) {
+            copy = List.copyOf(errors);
+        }
+        return new Progress(id, state, bytesRead.get(), totalBytes, rowsRead.get(), imported.get(),
+                rejected.get(), copy, message, startedAt, finishedAt);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.service;
+
+import com.example.demo.model.TaskStatus;
+
+// Filters and ordering for the task list; null filters are ignored
+public record TaskListQuery(TaskStatus status, String assignTo, String createdBy, boolean newestFirst, int size) {
+
+   public static final int DEFAULT_SIZE = 20;
+   public static final int MAX_SIZE = 100;
+
+   public TaskListQuery {
+      assignTo = blankToNull(assignTo);
+      createdBy = blankToNull(createdBy);
+      size = size <= 0 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+   }
+
+   private static String blankToNull(String value) {
+      return value == null || value.isBlank() ? null : value.trim();
+   }
+}
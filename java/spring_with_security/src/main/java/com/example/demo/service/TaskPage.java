@@ -0,0 +1,9 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Task;
+
+import java.util.List;
+
+// One page of the task list; a null cursor means there is no page in that direction
+public record TaskPage(List<Task> tasks, String nextCursor, String previousCursor) {
+}
@@ -0,0 +1,11 @@
+package com.example.demo.service;
+
+import com.example.demo.model.TaskStatus;
+
+// Field-level task edit: only non-null fields are written
+public record TaskPatch(String name, String description, String assignTo, TaskStatus status) {
+
+   public boolean isEmpty() {
+      return name == null && description == null && assignTo == null && status == null;
+   }
+}
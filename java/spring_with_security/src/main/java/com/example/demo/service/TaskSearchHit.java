@@ -0,0 +1,5 @@
+package com.example.demo.service;
+
+// One ranked search result; snippetHtml is escaped text with <mark> around matched terms
+public record TaskSearchHit(Long id, String name, String status, String assignTo, double rank, String snippetHtml) {
+}
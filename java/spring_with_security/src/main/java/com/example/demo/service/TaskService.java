@@ -2,36 +2,421 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Task;
+import com.example.demo.model.TaskStatus;
 import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.TaskRepository.TaskBulkView;
+import com.example.demo.repository.TaskSearchRow;
 
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.example.demo.repository.TaskSpecifications.assignedTo;
+import static com.example.demo.repository.TaskSpecifications.createdBy;
+import static com.example.demo.repository.TaskSpecifications.hasStatus;
+import static com.example.demo.repository.TaskSpecifications.seekPast;
 
 @Service
 public class TaskService {
 
+   // Rows fetched per round trip when streaming the full list
+   private static final int STREAM_BATCH_SIZE = 500;
+
+   public static final int MAX_SEARCH_RESULTS = 50;
+
+   // Upper bound for one bulk operation by id list
+   public static final int MAX_BULK_SIZE = 1000;
+
+   // ts_headline wraps matches in control characters that cannot appear in the
+   // stored text; they become <mark> only after the snippet has been escaped
+   private static final String MARK_START = "\u0002";
+   private static final String MARK_END = "\u0003";
+   private static final String HEADLINE_OPTIONS =
+      "StartSel=" + MARK_START + ", StopSel=" + MARK_END + ", MaxFragments=2, MaxWords=20, MinWords=8, FragmentDelimiter=\" ... \"";
+
    private final TaskRepository repo;
+   private final EntityManager entityManager;
+   private final TaskCounters counters;
+   private final JdbcTemplate jdbcTemplate;
+   private final ApplicationEventPublisher events;
 
-   public TaskService(TaskRepository repo) {
+   public TaskService(TaskRepository repo, EntityManager entityManager, TaskCounters counters,
+                      JdbcTemplate jdbcTemplate, ApplicationEventPublisher events) {
       this.repo = repo;
+      this.entityManager = entityManager;
+      this.counters = counters;
+      this.jdbcTemplate = jdbcTemplate;
+      this.events = events;
    }
 
    public List<Task> findAll() {
       return repo.findAll();
    }
 
+   /**
+    * Keyset pagination over (createDate, id): a page seeks past the cursor row
+    * instead of skipping OFFSET rows, so page N costs the same as page 1.
+    * Pass {@code after} to move forward, {@code before} to move back; with
+    * neither, the first page is returned.
+    */
+   public TaskPage findPage(TaskListQuery query, TaskCursor after, TaskCursor before) {
+      boolean backwards = after == null && before != null;
+      // Walking backwards reads the opposite direction, then flips the page
+      boolean descending = query.newestFirst() != backwards;
+      TaskCursor from = backwards ? before : after;
+
+      // One extra row tells us whether another page exists without a COUNT(*)
+      List<Task> rows = seek(query, from, descending, query.size() + 1);
+
+      boolean more = rows.size() > query.size();
+      List<Task> tasks = new ArrayList<>(more ? rows.subList(0, query.size()) : rows);
+      if (backwards) {
+         Collections.reverse(tasks);
+      }
+      if (tasks.isEmpty()) {
+         return new TaskPage(tasks, null, null);
+      }
+
+      boolean hasNext = backwards || more;
+      boolean hasPrevious = backwards ? more : after != null;
+      return new TaskPage(
+         tasks,
+         hasNext ? cursorOf(tasks.get(tasks.size() - 1)) : null,
+         hasPrevious ? cursorOf(tasks.get(0)) : null);
+   }
+
+   /**
+    * Every task matching the query, in order, without the page size cap.
+    * Rows are pulled lazily in keyset batches as the stream is consumed and
+    * detached once read, so memory stays flat however many rows there are.
+    * Outside a transaction (open-in-view is off) each batch borrows a
+    * connection for its own query only; inside one, the transaction's
+    * connection is held until it ends.
+    */
+   public Stream<Task> stream(TaskListQuery query) {
+      Iterator<Task> batches = new Iterator<>() {
+         private List<Task> batch = List.of();
+         private int index;
+         private boolean exhausted;
+
+         @Override
+         public boolean hasNext() {
+            if (index < batch.size()) {
+               return true;
+            }
+            if (exhausted) {
+               return false;
+            }
+            TaskCursor from = batch.isEmpty() ? null : cursorKey(batch.get(batch.size() - 1));
+            batch = seek(query, from, query.newestFirst(), STREAM_BATCH_SIZE);
+            batch.forEach(entityManager::detach);
+            index = 0;
+            exhausted = batch.size() < STREAM_BATCH_SIZE;
+            return !batch.isEmpty();
+         }
+
+         @Override
+         public Task next() {
+            if (!hasNext()) {
+               throw new NoSuchElementException();
+            }
+            return batch.get(index++);
+         }
+      };
+      return StreamSupport.stream(
+         Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false);
+   }
+
+   private List<Task> seek(TaskListQuery query, TaskCursor from, boolean descending, int limit) {
+      Specification<Task> spec = hasStatus(query.status())
+         .and(assignedTo(query.assignTo()))
+         .and(createdBy(query.createdBy()));
+      if (from != null) {
+         spec = spec.and(seekPast(from.createDate(), from.id(), descending));
+      }
+
+      Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+      Sort sort = Sort.by(direction, "createDate").and(Sort.by(direction, "id"));
+      return repo.findBy(spec, q -> q.sortBy(sort).limit(limit).all());
+   }
+
+   private static TaskCursor cursorKey(Task task) {
+      return new TaskCursor(task.getCreateDate(), task.getId());
+   }
+
+   private static String cursorOf(Task task) {
+      return cursorKey(task).encode();
+   }
+
    public Task findById(Long id) {
       return repo.findById(id).orElseThrow();
    }
 
-   public Task save(Task task) {
-      return repo.save(task);
+   /** Inserts a new task. Existing tasks are only changed through patch() and the bulk operations. */
+   public Task create(Task task) {
+      // Never a merge onto an existing row, whatever id or version the form bound
+      task.setId(null);
+      task.setVersion(null);
+      task.setDoneAt(null);
+      // Keeps search_text (and so the generated search_vector) in step with the description
+      task.setSearchText(HtmlText.toPlainText(task.getDescription()));
+      Task saved = repo.save(task);
+      counters.taskCreated(saved);
+      events.publishEvent(TaskEvent.created(saved));
+      return saved;
+   }
+
+   /**
+    * Field-level edit guarded by the task's version. Issues a single UPDATE of
+    * only the patched columns, with no SELECT beforehand; the row's pre-update
+    * status and assignee come back through RETURNING for the dashboard counters.
+    *
+    * @return the new version
+    * @throws OptimisticLockingFailureException if the task changed since expectedVersion was read
+    * @throws NoSuchElementException if the task does not exist
+    */
+   @Transactional
+   public long patch(Long id, long expectedVersion, TaskPatch patch) {
+      List<String> columns = new ArrayList<>();
+      List<Object> args = new ArrayList<>();
+      if (patch.name() != null) {
+         columns.add("name = ?");
+         args.add(patch.name());
+      }
+      if (patch.description() != null) {
+         columns.add("description = ?");
+         args.add(patch.description());
+         columns.add("search_text = ?");
+         args.add(HtmlText.toPlainText(patch.description()));
+      }
+      if (patch.assignTo() != null) {
+         columns.add("assign_to = ?");
+         args.add(patch.assignTo());
+      }
+      if (patch.status() != null) {
+         columns.add("status = ?");
+         args.add(patch.status().name());
+         // SET sees the old row: unchanged status keeps done_at, becoming DONE stamps it, anything else clears it
+         columns.add("done_at = CASE WHEN t.status = ? THEN t.done_at WHEN ? = 'DONE' THEN LOCALTIMESTAMP END");
+         args.add(patch.status().name());
+         args.add(patch.status().name());
+      }
+      columns.add("version = t.version + 1");
+      args.add(id);
+      args.add(expectedVersion);
+
+      // The locked sub-select only exists to expose the old values to RETURNING;
+      // it is part of the same statement, not a separate round trip
+      String sql = "UPDATE tasks t SET " + String.join(", ", columns)
+         + " FROM (SELECT id, status, assign_to FROM tasks WHERE id = ? FOR UPDATE) old"
+         + " WHERE t.id = old.id AND t.version = ?"
+         + " RETURNING old.status AS old_status, old.assign_to AS old_assign_to, t.version AS new_version";
+      List<Object[]> updated = jdbcTemplate.query(sql,
+         (rs, i) -> new Object[] { rs.getString("old_status"), rs.getString("old_assign_to"), rs.getLong("new_version") },
+         args.toArray());
+
+      if (updated.isEmpty()) {
+         // Failure path only: tell a stale version apart from a missing task
+         if (!repo.existsById(id)) {
+            throw new NoSuchElementException("Task " + id + " not found");
+         }
+         throw new OptimisticLockingFailureException("Task " + id + " was modified by someone else");
+      }
+
+      Object[] row = updated.get(0);
+      TaskCounters.Batch deltas = counters.batch();
+      if (patch.status() != null) {
+         deltas.move(TaskCounters.STATUS, (String) row[0], patch.status().name(), 1);
+      }
+      if (patch.assignTo() != null) {
+         deltas.move(TaskCounters.ASSIGNEE, (String) row[1], patch.assignTo(), 1);
+      }
+      deltas.apply();
+      events.publishEvent(TaskEvent.updated(id, patch));
+      return (Long) row[2];
+   }
+
+   /**
+    * Ranked full-text search over task names and descriptions. Accepts web-search
+    * syntax ("quoted phrases", -excluded, or).
+    */
+   public List<TaskSearchHit> search(String terms, int limit) {
+      if (terms == null || terms.isBlank()) {
+         return List.of();
+      }
+      int capped = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+      return repo.search(terms.trim(), HEADLINE_OPTIONS, capped).stream()
+         .map(TaskService::toHit)
+         .toList();
+   }
+
+   /** Same as search(), over archived tasks only. */
+   public List<TaskSearchHit> searchArchive(String terms, int limit) {
+      if (terms == null || terms.isBlank()) {
+         return List.of();
+      }
+      int capped = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+      return repo.searchArchive(terms.trim(), HEADLINE_OPTIONS, capped).stream()
+         .map(TaskService::toHit)
+         .toList();
+   }
+
+   private static TaskSearchHit toHit(TaskSearchRow row) {
+      String snippet = HtmlUtils.htmlEscape(row.getSnippet() == null ? "" : row.getSnippet())
+         .replace(MARK_START, "<mark>")
+         .replace(MARK_END, "</mark>");
+      double rank = row.getRank() == null ? 0 : row.getRank();
+      return new TaskSearchHit(row.getId(), row.getName(), row.getStatus(), row.getAssignTo(), rank, snippet);
    }
 
   @PreAuthorize("hasRole('ADMIN') or #task.createdBy == authentication.name")
    public void delete(Task task) {
       repo.delete(task);
+      counters.taskDeleted(task);
+      events.publishEvent(TaskEvent.deleted(task.getId()));
+   }
+
+   // ---- bulk operations ----
+   // Set-based statements instead of one merge per task. The owner/admin rule of
+   // delete() above is applied in the WHERE clause (see TaskRepository), so tasks
+   // the caller may not touch are skipped rather than failing the whole request.
+
+   @Transactional
+   @PreAuthorize("isAuthenticated()")
+   public TaskBulkResult reassign(Collection<Long> ids, String assignTo) {
+      String target = requireAssignee(assignTo);
+      Set<Long> requested = requestedIds(ids);
+      Caller caller = Caller.current();
+
+      List<TaskBulkView> rows = repo.lockForBulk(requested, caller.name(), caller.admin());
+      if (!rows.isEmpty()) {
+         repo.updateAssigneeByIdIn(idsOf(rows), target, caller.name(), caller.admin());
+         TaskCounters.Batch deltas = counters.batch();
+         rows.forEach(row -> deltas.move(TaskCounters.ASSIGNEE, row.getAssignTo(), target, 1));
+         deltas.apply();
+         rows.forEach(row -> events.publishEvent(
+            new TaskEvent(TaskEvent.Type.UPDATED, row.getId(), null, null, target)));
+      }
+      return new TaskBulkResult(requested.size(), idsOf(rows));
+   }
+
+   /** Moves every task assigned to fromAssignee (that the caller may change) to assignTo. */
+   @Transactional
+   @PreAuthorize("isAuthenticated()")
+   public int reassignAll(String fromAssignee, String assignTo) {
+      String from = requireAssignee(fromAssignee);
+      String target = requireAssignee(assignTo);
+      Caller caller = Caller.current();
+
+      int updated = repo.updateAssigneeByAssignee(from, target, caller.name(), caller.admin());
+      counters.batch().move(TaskCounters.ASSIGNEE, from, target, updated).apply();
+      if (updated > 0) {
+         // The statement does not return ids; boards reload instead
+         events.publishEvent(TaskEvent.refresh());
+      }
+      return updated;
+   }
+
+   @Transactional
+   @PreAuthorize("isAuthenticated()")
+   public TaskBulkResult changeStatus(Collection<Long> ids, TaskStatus status) {
+      Objects.requireNonNull(status, "status");
+      Set<Long> requested = requestedIds(ids);
+      Caller caller = Caller.current();
+
+      List<TaskBulkView> rows = repo.lockForBulk(requested, caller.name(), caller.admin());
+      if (!rows.isEmpty()) {
+         repo.updateStatusByIdIn(idsOf(rows), status, status == TaskStatus.DONE, caller.name(), caller.admin());
+         TaskCounters.Batch deltas = counters.batch();
+         rows.forEach(row -> deltas.move(TaskCounters.STATUS, nameOf(row.getStatus()), status.name(), 1));
+         deltas.apply();
+         rows.forEach(row -> events.publishEvent(
+            new TaskEvent(TaskEvent.Type.UPDATED, row.getId(), null, status.name(), null)));
+      }
+      return new TaskBulkResult(requested.size(), idsOf(rows));
+   }
+
+   @Transactional
+   @PreAuthorize("isAuthenticated()")
+   public TaskBulkResult deleteAll(Collection<Long> ids) {
+      Set<Long> requested = requestedIds(ids);
+      Caller caller = Caller.current();
+
+      List<TaskBulkView> rows = repo.lockForBulk(requested, caller.name(), caller.admin());
+      if (!rows.isEmpty()) {
+         repo.deleteByIdIn(idsOf(rows), caller.name(), caller.admin());
+         TaskCounters.Batch deltas = counters.batch();
+         rows.forEach(row -> deltas.removed(nameOf(row.getStatus()), row.getAssignTo(), row.getCreatedBy()));
+         deltas.apply();
+         rows.forEach(row -> events.publishEvent(TaskEvent.deleted(row.getId())));
+      }
+      return new TaskBulkResult(requested.size(), idsOf(rows));
+   }
+
+   private static Set<Long> requestedIds(Collection<Long> ids) {
+      Set<Long> requested = new LinkedHashSet<>();
+      if (ids != null) {
+         for (Long id : ids) {
+            if (id != null) {
+               requested.add(id);
+            }
+         }
+      }
+      if (requested.isEmpty()) {
+         throw new IllegalArgumentException("Select at least one task");
+      }
+      if (requested.size() > MAX_BULK_SIZE) {
+         throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " tasks can be changed at once");
+      }
+      return requested;
+   }
+
+   private static String requireAssignee(String assignee) {
+      if (assignee == null || assignee.isBlank()) {
+         throw new IllegalArgumentException("Assignee is required");
+      }
+      return assignee.trim();
+   }
+
+   private static List<Long> idsOf(List<TaskBulkView> rows) {
+      return rows.stream().map(TaskBulkView::getId).toList();
+   }
+
+   private static String nameOf(TaskStatus status) {
+      return status == null ? null : status.name();
+   }
+
+   // The same identity and role checks the delete() expression uses
+   private record Caller(String name, boolean admin) {
+
+      static Caller current() {
+         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+         boolean admin = auth.getAuthorities().stream()
+            .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+         return new Caller(auth.getName(), admin);
+      }
    }
 }
@@ -0,0 +1,235 @@
+package com.example.demo.service;
+
+import com.example.demo.model.TaskType;
+import com.example.demo.repository.TaskTypeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory catalog of task types.
+ *
+ * Reads are served from an immutable snapshot swapped in through a volatile
+ * field, so they never touch the database. Writes go through this class:
+ * the row change and a bump of reference_data_version.task_types happen in one
+ * transaction, and the snapshot is rebuilt after commit. Other nodes notice
+ * the new version on their next poll and rebuild their own snapshot.
+ */
+@Service
+public class TaskTypeCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskTypeCatalog.class);
+
+    private static final String VERSION_KEY = "task_types";
+
+    private final TaskTypeRepository taskTypeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+
+    // Empty until the first load
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public TaskTypeCatalog(TaskTypeRepository taskTypeRepository,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager) {
+        this.taskTypeRepository = taskTypeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // REQUIRES_NEW: reload also runs from afterCommit, where the finished transaction is still bound
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialLoad() {
+        reload();
+    }
+
+    // ---- reads (memory only) ----
+
+    public List<Entry> findAll() {
+        return snapshot.all;
+    }
+
+    public Optional<Entry> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId.get(id));
+    }
+
+    public boolean existsByName(String name) {
+        return name != null && snapshot.byName.containsKey(name);
+    }
+
+    public long version() {
+        return snapshot.version;
+    }
+
+    // ---- writes ----
+
+    @Transactional
+    public TaskType create(String name, String description) {
+        TaskType saved = taskTypeRepository.save(new TaskType(name, description));
+        bumpVersionAndReloadAfterCommit();
+        return saved;
+    }
+
+    @Transactional
+    public TaskType update(Long id, String name, String description) {
+        TaskType taskType = taskTypeRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Task type not found"));
+        taskType.setName(name);
+        taskType.setDescription(description);
+        TaskType saved = taskTypeRepository.save(taskType);
+        bumpVersionAndReloadAfterCommit();
+        return saved;
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        taskTypeRepository.deleteById(id);
+        bumpVersionAndReloadAfterCommit();
+    }
+
+    // ---- refresh ----
+
+    /** Cross-node refresh: one primary-key lookup per poll, a full reload only when the stamp moved. */
+    @Scheduled(fixedDelayString = "${app.reference-data.poll-interval:5s}",
+               initialDelayString = "${app.reference-data.poll-interval:5s}")
+    public void pollVersion() {
+        try {
+            if (readVersion() > snapshot.version) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Task type catalog version poll failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        Snapshot next = readOnlyTx.execute(status -> {
+            // Version first: rows committed after this read only make the snapshot newer
+            // than its stamp, and the next poll reloads again
+            long version = readVersion();
+            return Snapshot.of(version, taskTypeRepository.findAll());
+        });
+        if (next != null && next.version >= snapshot.version) {
+            snapshot = next;
+            log.debug("Task type catalog reloaded: {} entries at version {}", next.all.size(), next.version);
+        }
+    }
+
+    private void bumpVersionAndReloadAfterCommit() {
+        jdbcTemplate.update(
+                "UPDATE reference_data_version SET version = version + 1 WHERE name = ?", VERSION_KEY);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    private long readVersion() {
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT version FROM reference_data_version WHERE name = ?", Long.class, VERSION_KEY);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Read-only copy of a task type row, shared by all requests.
+     */
+    public static final class Entry {
+
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+
+        private Entry(TaskType taskType) {
+            this.id = taskType.getId();
+            this.name = taskType.getName();
+            this.description = taskType.getDescription();
+            this.createdAt = taskType.getCreatedAt();
+            this.updatedAt = taskType.getUpdatedAt();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        /** Fresh, mutable entity for form binding. */
+        public TaskType toTaskType() {
+            TaskType taskType = new TaskType(name, description);
+            taskType.setId(id);
+            taskType.setCreatedAt(createdAt);
+            taskType.setUpdatedAt(updatedAt);
+            return taskType;
+        }
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(-1, List.of(), Map.of(), Map.of());
+
+        final long version;
+        final List<Entry> all;
+        final Map<Long, Entry> byId;
+        final Map<String, Entry> byName;
+
+        private Snapshot(long version, List<Entry> all, Map<Long, Entry> byId, Map<String, Entry> byName) {
+            this.version = version;
+            this.all = all;
+            this.byId = byId;
+            this.byName = byName;
+        }
+
+        static Snapshot of(long version, List<TaskType> rows) {
+            List<Entry> all = new ArrayList<>(rows.size());
+            Map<Long, Entry> byId = new HashMap<>();
+            Map<String, Entry> byName = new HashMap<>();
+            for (TaskType row : rows) {
+                Entry entry = new Entry(row);
+                all.add(entry);
+                byId.put(entry.getId(), entry);
+                byName.put(entry.getName(), entry);
+            }
+            all.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+            return new Snapshot(version, Collections.unmodifiableList(all),
+                    Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName));
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.demo.service;
 
+import com.example.demo.diagnostics.PasswordHashEvent;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.PrincipalRefreshRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
@@ -15,6 +19,15 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PrincipalRefreshRegistry principalRefreshRegistry;
+
+    @Autowired
+    private UsernameAvailability usernameAvailability;
+
+    @Autowired
+    private AssigneeIndex assigneeIndex;
+
     /**
      * Validates password strength with strict requirements
      * Requirements:
@@ -91,8 +104,9 @@ public class UserService {
         // Validate username
         validateUsername(username);
         
-        // Check if username already exists
-        if (userRepository.findByUsername(username).isPresent()) {
+        // Check if username already exists, ignoring case like the signup check and the
+        // unique index on lower(username); the Bloom filter rules out most new names without a query
+        if (usernameAvailability.mightExist(username) && userRepository.existsByUsernameIgnoreCase(username)) {
             throw new IllegalArgumentException("Username already exists");
         }
 
@@ -100,14 +114,27 @@ public class UserService {
         validatePasswordStrength(rawPassword);
 
         // Hash the password using BCrypt
+        PasswordHashEvent hashEvent = new PasswordHashEvent();
+        hashEvent.begin();
         String hashedPassword = passwordEncoder.encode(rawPassword);
+        hashEvent.finish("encode", false);
         
         // Set roles based on admin flag
         String roles = isAdmin ? "ADMIN,USER" : "USER";
         
         // Create and save the user
         User user = new User(username, hashedPassword, roles);
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // The unique indexes are the final arbiter: a concurrent registration took the name,
+            // possibly in another case
+            throw new IllegalArgumentException("Username already exists");
+        }
+        usernameAvailability.registered(saved.getUsername());
+        assigneeIndex.registered(saved.getUsername(), saved.getDepartment());
+        return saved;
     }
 
     /**
@@ -126,4 +153,28 @@ public class UserService {
         }
         return registerUser(username, rawPassword, true);
     }
-}
\ No newline at end of file
+
+    /**
+     * Move a user to another department
+     * Active sessions of that user pick up the change on their next request
+     * (see PrincipalRefreshFilter)
+     *
+     * @param username The user to update
+     * @param department The new department, or null/blank for none
+     * @return The updated User entity
+     * @throws IllegalArgumentException if the user does not exist
+     */
+    @Transactional
+    public User updateDepartment(String username, String department) {
+        User user = userRepository.findByUsernameIgnoreCase(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        user.setDepartment(department == null || department.isBlank() ? null : department.trim());
+        User saved = userRepository.save(user);
+
+        // Same transaction as the row change; sessions on every node see it after commit
+        principalRefreshRegistry.markChanged(saved.getUsername());
+        assigneeIndex.departmentChanged(saved.getUsername(), saved.getDepartment());
+        return saved;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.UserRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Locale;
+
+/**
+ * Answers "is this username taken?" for as-you-type checks on the signup page.
+ *
+ * A Bloom filter of lowercased usernames, built at startup and fed by every
+ * registration on this node, answers "definitely free" without touching the
+ * database; only a "maybe taken" goes to the unique lower(username) index.
+ * Names that differ only in case count as taken, as at registration.
+ *
+ * Every registration bumps the usernames stamp in reference_data_version.
+ * Each node polls it; once the stamp is ahead of the filter (someone
+ * registered on another node), every check goes to the database until the
+ * filter has been rebuilt, which happens on that same poll. The filter is also
+ * rebuilt periodically, sized for twice the current user count so it keeps
+ * its error rate as users grow. The answer is still advisory: the unique
+ * index decides at registration.
+ */
+@Service
+public class UsernameAvailability {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameAvailability.class);
+
+    private static final String VERSION_KEY = "usernames";
+
+    public record Result(String username, boolean available) {
+    }
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+
+    // null until the first build: everything is "maybe" and goes to the database
+    private volatile UsernameBloomFilter filter;
+    // Filter being rebuilt; registrations during the scan go into it as well
+    private volatile UsernameBloomFilter building;
+    // Stamp the filter is complete up to, and the latest stamp seen; the filter is trusted only while they agree
+    private volatile long filterVersion = -1;
+    private volatile long latestVersion;
+    private final Object versionLock = new Object();
+
+    public UsernameAvailability(UserRepository userRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.username-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${app.username-filter.min-capacity:10000}") long minCapacity) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = Math.max(1, minCapacity);
+    }
+
+    public Result check(String username) {
+        String key = normalize(username);
+        UsernameBloomFilter current = trustedFilter();
+        if (current != null && !current.mightContain(key)) {
+            return new Result(username, true);
+        }
+        return new Result(username, !userRepository.existsByUsernameIgnoreCase(key));
+    }
+
+    /** False means the name is certainly not registered; true means "check the database". */
+    public boolean mightExist(String username) {
+        UsernameBloomFilter current = trustedFilter();
+        return current == null || current.mightContain(normalize(username));
+    }
+
+    /** Called after a user row is inserted (and committed). */
+    public void registered(String username) {
+        String key = normalize(username);
+        UsernameBloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        UsernameBloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+        long version = bumpVersion();
+        synchronized (versionLock) {
+            // Still complete only if no other node registered anyone since the filter's stamp
+            if (current != null && current == filter && version == filterVersion + 1) {
+                filterVersion = version;
+            }
+            latestVersion = Math.max(latestVersion, version);
+        }
+    }
+
+    private UsernameBloomFilter trustedFilter() {
+        return filterVersion >= latestVersion ? filter : null;
+    }
+
+    /** Cross-node catch-up: one primary-key lookup per poll, a rebuild only when the stamp moved. */
+    @Scheduled(fixedDelayString = "${app.reference-data.poll-interval:5s}",
+               initialDelayString = "${app.reference-data.poll-interval:5s}")
+    public void pollVersion() {
+        try {
+            long version = readVersion();
+            if (version > filterVersion) {
+                synchronized (versionLock) {
+                    latestVersion = Math.max(latestVersion, version);
+                }
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Username filter version poll failed: {}", e.getMessage());
+        }
+    }
+
+    // After startup runners, so users bulk-loaded by SyntheticDataSeeder are included
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialBuild() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.username-filter.rebuild-interval:10m}",
+               initialDelayString = "${app.username-filter.rebuild-interval:10m}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Username filter rebuild failed, keeping the current one: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        long users = userRepository.count();
+        // Headroom for registrations until the next rebuild
+        UsernameBloomFilter next = UsernameBloomFilter.create(Math.max(minCapacity, users * 2), falsePositiveRate);
+        building = next;
+        try {
+            // Inside a transaction so Postgres honours the fetch size and streams the names.
+            // Version first: a registration committed after it only makes the filter newer than its stamp
+            long version = tx.execute(status -> {
+                long stamp = readVersion();
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("SELECT lower(username) FROM users",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(5000);
+                    return ps;
+                }, (ResultSet rs) -> {
+                    next.put(rs.getString(1));
+                });
+                return stamp;
+            });
+            synchronized (versionLock) {
+                filter = next;
+                filterVersion = version;
+                latestVersion = Math.max(latestVersion, version);
+            }
+        } finally {
+            building = null;
+        }
+        log.debug("Username filter rebuilt: {} names, {} bytes", next.insertions(), next.sizeInBytes());
+    }
+
+    private long bumpVersion() {
+        Long version = jdbcTemplate.queryForObject(
+                "UPDATE reference_data_version SET version = version + 1 WHERE name = ? RETURNING version",
+                Long.class, VERSION_KEY);
+        return version != null ? version : 0L;
+    }
+
+    private long readVersion() {
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT version FROM reference_data_version WHERE name = ?", Long.class, VERSION_KEY);
+        return version != null ? version : 0L;
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+}
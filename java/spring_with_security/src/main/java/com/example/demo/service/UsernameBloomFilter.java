@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. mightContain never returns false for
+ * a value that was put; it returns true for an absent value with roughly the
+ * configured false-positive probability while no more than expectedInsertions
+ * values have been put. Thread-safe; puts are lock-free.
+ */
+public final class UsernameBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private UsernameBloomFilter(long bitCount, int hashCount) {
+        this.bits = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /** Sized for expectedInsertions values at false-positive probability fpp (0 < fpp < 1). */
+    public static UsernameBloomFilter create(long expectedInsertions, double fpp) {
+        if (expectedInsertions < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and fpp in (0, 1)");
+        }
+        long bitCount = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        return new UsernameBloomFilter(bitCount, hashCount);
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            long mask = 1L << bit;
+            bits.getAndAccumulate((int) (bit >>> 6), mask, (current, m) -> current | m);
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long insertions() {
+        return insertions.get();
+    }
+
+    public long sizeInBytes() {
+        return bits.length() * 8L;
+    }
+
+    private long index(long combined) {
+        return (combined & Long.MAX_VALUE) % bitCount;
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 fmix64 avalanche
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
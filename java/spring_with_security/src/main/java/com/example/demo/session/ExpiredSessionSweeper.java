@@ -0,0 +1,73 @@
+package com.example.demo.session;
+
+import com.example.common.jdbc.LockedBatchJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Deletes expired rows from spring_session in batches of app.session.sweeper.batch-size,
+ * one short transaction each, instead of Spring Session's single unbounded DELETE
+ * (disabled with spring.session.jdbc.cleanup-cron=-). After a burst of abandoned
+ * sessions that statement can lock and rewrite a large part of the table at once.
+ * Rows are claimed with SKIP LOCKED so a session being saved is never waited for,
+ * and only one node sweeps at a time (LockedBatchJob). Attributes go with their session (ON DELETE CASCADE).
+ */
+@Component
+@ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc", matchIfMissing = true)
+public class ExpiredSessionSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredSessionSweeper.class);
+
+    private static final String DELETE_BATCH = """
+            DELETE FROM spring_session
+            WHERE primary_id IN (
+                SELECT primary_id FROM spring_session
+                WHERE expiry_time < ?
+                ORDER BY expiry_time
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LockedBatchJob job;
+
+    public ExpiredSessionSweeper(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.session.sweeper.batch-size:1000}") int batchSize,
+                                 @Value("${app.session.sweeper.max-batches-per-run:100}") int maxBatchesPerRun,
+                                 @Value("${app.session.sweeper.pause:50ms}") Duration pause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.job = new LockedBatchJob("session-sweep", jdbcTemplate, transactionManager)
+                .batchSize(batchSize)
+                .maxBatchesPerRun(maxBatchesPerRun)
+                .pause(pause);
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.sweeper.interval:1m}",
+               initialDelayString = "${app.session.sweeper.interval:1m}")
+    public void scheduledSweep() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.warn("Expired session sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /** Returns the number of sessions deleted. */
+    public long sweep() {
+        long now = System.currentTimeMillis();
+        long deleted = job.batches(() -> jdbcTemplate.update(DELETE_BATCH, now, job.batchSize())).rows();
+        if (deleted > 0) {
+            log.debug("Deleted {} expired sessions", deleted);
+        }
+        return deleted;
+    }
+}
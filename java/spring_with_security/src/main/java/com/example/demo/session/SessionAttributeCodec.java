@@ -0,0 +1,153 @@
+package com.example.demo.session;
+
+import com.example.demo.security.AppUserPrincipal;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes session attributes for the JDBC session store.
+ *
+ * The logged-in SecurityContext (an AppUserPrincipal behind a
+ * UsernamePasswordAuthenticationToken, as produced by form login and
+ * PrincipalRefreshFilter) is written field by field - a few dozen bytes
+ * instead of the ~2KB of Java serialization, and independent of Spring
+ * Security's class versions. Anything else (saved requests, flash maps)
+ * falls back to Java serialization. The first byte tells the two apart.
+ */
+public class SessionAttributeCodec implements Serializer<Object>, Deserializer<Object> {
+
+    private static final int JAVA_SERIALIZED = 0;
+    private static final int SECURITY_CONTEXT_V1 = 1;
+
+    private final DefaultSerializer javaSerializer = new DefaultSerializer();
+    private final DefaultDeserializer javaDeserializer;
+
+    public SessionAttributeCodec(ClassLoader classLoader) {
+        this.javaDeserializer = new DefaultDeserializer(classLoader);
+    }
+
+    @Override
+    public void serialize(Object value, OutputStream out) throws IOException {
+        if (isCompact(value)) {
+            out.write(SECURITY_CONTEXT_V1);
+            writeContext((SecurityContext) value, new DataOutputStream(out));
+        } else {
+            out.write(JAVA_SERIALIZED);
+            javaSerializer.serialize(value, out);
+        }
+    }
+
+    @Override
+    public Object deserialize(InputStream in) throws IOException {
+        int format = in.read();
+        return switch (format) {
+            case SECURITY_CONTEXT_V1 -> readContext(new DataInputStream(in));
+            case JAVA_SERIALIZED -> javaDeserializer.deserialize(in);
+            default -> throw new IOException("Unknown session attribute format " + format);
+        };
+    }
+
+    // Only the exact shape we can rebuild losslessly; credentials must already be erased
+    private static boolean isCompact(Object value) {
+        if (!(value instanceof SecurityContextImpl context)) {
+            return false;
+        }
+        Authentication auth = context.getAuthentication();
+        return auth != null
+                && auth.getClass() == UsernamePasswordAuthenticationToken.class
+                && auth.isAuthenticated()
+                && auth.getCredentials() == null
+                && auth.getPrincipal() != null
+                && auth.getPrincipal().getClass() == AppUserPrincipal.class
+                && ((AppUserPrincipal) auth.getPrincipal()).getPassword() == null
+                && (auth.getDetails() == null || auth.getDetails().getClass() == WebAuthenticationDetails.class);
+    }
+
+    private static void writeContext(SecurityContext context, DataOutputStream out) throws IOException {
+        Authentication auth = context.getAuthentication();
+        AppUserPrincipal principal = (AppUserPrincipal) auth.getPrincipal();
+
+        out.writeUTF(principal.getUsername());
+        writeNullableLong(out, principal.getId());
+        out.writeBoolean(principal.isEnabled());
+        writeNullableString(out, principal.getDepartment());
+        out.writeLong(principal.getGeneration());
+
+        out.writeShort(auth.getAuthorities().size());
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            out.writeUTF(authority.getAuthority());
+        }
+
+        WebAuthenticationDetails details = (WebAuthenticationDetails) auth.getDetails();
+        out.writeBoolean(details != null);
+        if (details != null) {
+            writeNullableString(out, details.getRemoteAddress());
+            writeNullableString(out, details.getSessionId());
+        }
+        out.flush();
+    }
+
+    private static SecurityContext readContext(DataInputStream in) throws IOException {
+        String username = in.readUTF();
+        Long id = readNullableLong(in);
+        boolean enabled = in.readBoolean();
+        String department = readNullableString(in);
+        long generation = in.readLong();
+
+        int count = in.readUnsignedShort();
+        List<GrantedAuthority> authorities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            authorities.add(new SimpleGrantedAuthority(in.readUTF()));
+        }
+
+        // User rejects a null password, so build with a placeholder and erase it again
+        AppUserPrincipal principal = new AppUserPrincipal(id, username, "", enabled, authorities, department, generation);
+        principal.eraseCredentials();
+        UsernamePasswordAuthenticationToken token =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+        if (in.readBoolean()) {
+            token.setDetails(new WebAuthenticationDetails(readNullableString(in), readNullableString(in)));
+        }
+        return new SecurityContextImpl(token);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.session;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP session storage. By default sessions live in Postgres (Spring Session
+ * JDBC, configured by Boot from spring.session.jdbc.*), so nodes need no
+ * sticky sessions. Only attributes set during a request are written back
+ * (save-mode on-set-attribute), and they are encoded by SessionAttributeCodec.
+ *
+ * app.session.store=memory keeps sessions in this node's heap instead, for
+ * single-node development and comparison runs (abandoned sessions are only
+ * dropped when looked up again, so it is not meant for production).
+ */
+@Configuration
+public class SessionConfig implements BeanClassLoaderAware {
+
+    private ClassLoader classLoader;
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    // Picked up by name by Spring Session JDBC for attribute (de)serialization
+    @Bean("springSessionConversionService")
+    public ConversionService springSessionConversionService() {
+        SessionAttributeCodec codec = new SessionAttributeCodec(classLoader);
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, new SerializingConverter(codec));
+        conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(codec));
+        return conversionService;
+    }
+
+    @Configuration
+    @EnableSpringHttpSession
+    @ConditionalOnProperty(name = "app.session.store", havingValue = "memory")
+    static class InMemorySessionConfig {
+
+        @Bean
+        public MapSessionRepository sessionRepository(
+                @Value("${spring.session.timeout:30m}") Duration timeout) {
+            MapSessionRepository repository = new MapSessionRepository(new ConcurrentHashMap<>());
+            repository.setDefaultMaxInactiveInterval(timeout);
+            return repository;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- When a task last became DONE. TaskArchiver ages DONE tasks by this rather than
+-- by create_date, so a long-running task finished today is not archived at once.
+-- Set by TaskService (create, patch, changeStatus) and the CSV import, and
+-- cleared when a task is reopened.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS done_at TIMESTAMP(6);
+ALTER TABLE tasks_archive ADD COLUMN IF NOT EXISTS done_at TIMESTAMP(6);
+
+-- When existing DONE tasks were finished is unknown: start their clock now
+UPDATE tasks SET done_at = LOCALTIMESTAMP WHERE status = 'DONE' AND done_at IS NULL;
+
+-- The archiver's scan: status = 'DONE' AND done_at < cutoff ORDER BY done_at, id
+CREATE INDEX IF NOT EXISTS idx_tasks_done_at_id ON tasks (done_at, id) WHERE status = 'DONE';
@@ -0,0 +1,9 @@
+-- Per-user generation of the principal cached in sessions (PrincipalRefreshRegistry).
+-- Bumped when data the principal carries changes; a session holding an older
+-- generation is reloaded on its next request, on whichever node serves it.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS principal_generation BIGINT NOT NULL DEFAULT 0;
+
+-- Nodes poll this stamp and reload the generations of changed users when it moves
+INSERT INTO reference_data_version (name, version)
+VALUES ('principal_generations', 0)
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,12 @@
+-- Usernames are unique regardless of case, as the signup availability check
+-- (UsernameAvailability) and registration (UserService) treat them. Fails if
+-- existing rows differ only in case; rename those first.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_username_lower ON users (lower(username));
+
+-- Superseded by the unique index, which serves the same lookups
+DROP INDEX IF EXISTS idx_users_username_lower;
+
+-- Bumped after every registration, so nodes can tell their username filter is behind
+INSERT INTO reference_data_version (name, version)
+VALUES ('usernames', 0)
+ON CONFLICT (name) DO NOTHING;
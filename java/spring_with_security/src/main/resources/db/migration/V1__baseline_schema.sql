@@ -0,0 +1,30 @@
+-- Baseline schema, matching what ddl-auto=update used to create.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate),
+-- so this script only runs against an empty database.
+
+CREATE TABLE IF NOT EXISTS users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(255) NOT NULL UNIQUE,
+    password   VARCHAR(255) NOT NULL,
+    roles      VARCHAR(255) NOT NULL,
+    enabled    BOOLEAN      NOT NULL,
+    department VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    description VARCHAR(2000),
+    created_by  VARCHAR(255),
+    assign_to   VARCHAR(255),
+    status      VARCHAR(255),
+    create_date TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS task_types (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(500),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
@@ -0,0 +1,2 @@
+-- Case-insensitive username lookups, queried as lower(username) = lower(:username)
+CREATE INDEX IF NOT EXISTS idx_users_username_lower ON users (lower(username));
@@ -1,3 +1,6 @@
+-- Demo tasks, previously loaded by data.sql on every startup.
+-- Only inserts when the table is empty.
+
 INSERT INTO tasks (name, description, created_by, assign_to, status, create_date)
 SELECT seed.name, seed.description, seed.created_by, seed.assign_to, seed.status, seed.create_date
 FROM (
@@ -0,0 +1,12 @@
+-- Version stamps for in-memory reference data caches (TaskTypeCatalog).
+-- Writers bump the row in the same transaction as the data change; every node
+-- polls it and reloads its snapshot when the version moves.
+
+CREATE TABLE IF NOT EXISTS reference_data_version (
+    name    VARCHAR(64) PRIMARY KEY,
+    version BIGINT      NOT NULL
+);
+
+INSERT INTO reference_data_version (name, version)
+VALUES ('task_types', 0)
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,13 @@
+-- Keyset pagination for the task list (TaskService.findPage).
+-- Every page is "ORDER BY create_date, id LIMIT n" seeked past the last row of the
+-- previous page, so each filter gets an index whose trailing columns are the sort key.
+-- B-trees scan both ways, so one index serves newest-first and oldest-first.
+
+-- The keyset needs a total order; create_date is always set by Task.onCreate.
+UPDATE tasks SET create_date = TIMESTAMP '1970-01-01 00:00:00' WHERE create_date IS NULL;
+ALTER TABLE tasks ALTER COLUMN create_date SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_create_date_id ON tasks (create_date, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_status_create_date_id ON tasks (status, create_date, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_assign_to_create_date_id ON tasks (assign_to, create_date, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_created_by_create_date_id ON tasks (created_by, create_date, id);
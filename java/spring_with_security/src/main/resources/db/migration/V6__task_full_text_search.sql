@@ -0,0 +1,23 @@
+-- Full-text search over task names and descriptions (TaskService.search).
+-- search_text holds the plain text of the TinyMCE HTML and is written by the
+-- application on every save; search_vector is derived from it by Postgres, with
+-- name matches weighted above description matches.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_text VARCHAR(2000);
+
+-- Backfill existing rows; new and updated rows get HtmlText.toPlainText on save
+UPDATE tasks
+SET search_text = btrim(regexp_replace(
+        replace(replace(replace(replace(
+            regexp_replace(description, '<[^>]*>', ' ', 'g'),
+            '&nbsp;', ' '), '&lt;', '<'), '&gt;', '>'), '&amp;', '&'),
+        '\s+', ' ', 'g'))
+WHERE description IS NOT NULL AND search_text IS NULL;
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(search_text, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
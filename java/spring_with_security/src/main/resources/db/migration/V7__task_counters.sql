@@ -0,0 +1,23 @@
+-- Incrementally maintained task counts for the dashboard (TaskCounters).
+-- One row per (dimension, key): dimension is status, assignee or creator, and
+-- key is the status name or username ('' when the task has none). Nodes add
+-- their in-memory deltas here periodically; a reconcile job rebuilds the table
+-- from tasks to remove any drift.
+
+CREATE TABLE IF NOT EXISTS task_counters (
+    dimension VARCHAR(16)  NOT NULL,
+    key       VARCHAR(255) NOT NULL,
+    count     BIGINT       NOT NULL,
+    PRIMARY KEY (dimension, key)
+);
+
+-- Top assignees / creators for the dashboard snapshot
+CREATE INDEX IF NOT EXISTS idx_task_counters_dimension_count ON task_counters (dimension, count DESC);
+
+INSERT INTO task_counters (dimension, key, count)
+SELECT 'status', COALESCE(status, ''), COUNT(*) FROM tasks GROUP BY COALESCE(status, '')
+UNION ALL
+SELECT 'assignee', COALESCE(assign_to, ''), COUNT(*) FROM tasks GROUP BY COALESCE(assign_to, '')
+UNION ALL
+SELECT 'creator', COALESCE(created_by, ''), COUNT(*) FROM tasks GROUP BY COALESCE(created_by, '')
+ON CONFLICT (dimension, key) DO NOTHING;
@@ -0,0 +1,3 @@
+-- Optimistic versioning for task edits (TaskService.patch): every update bumps
+-- version and only applies when the caller's version is still current.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,26 @@
+-- Cold storage for finished tasks (TaskArchiver). DONE tasks past the configured
+-- age are moved here in small batches, so list, count and dashboard queries on
+-- tasks only see live work. Archived tasks are read only through the archive
+-- search, which has its own full-text index.
+
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id          BIGINT PRIMARY KEY,
+    name        VARCHAR(255),
+    description VARCHAR(2000),
+    search_text VARCHAR(2000),
+    created_by  VARCHAR(255),
+    assign_to   VARCHAR(255),
+    status      VARCHAR(255),
+    create_date TIMESTAMP(6) NOT NULL,
+    version     BIGINT       NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL DEFAULT now(),
+    search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(search_text, '')), 'B')
+    ) STORED
+);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_search_vector ON tasks_archive USING GIN (search_vector);
+
+-- The archiver's scan (status = 'DONE' AND create_date < cutoff ORDER BY create_date, id)
+-- is served by idx_tasks_status_create_date_id from V5.
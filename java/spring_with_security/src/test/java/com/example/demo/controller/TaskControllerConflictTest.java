@@ -0,0 +1,87 @@
+package com.example.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import com.example.demo.model.Task;
+import com.example.demo.model.TaskStatus;
+import com.example.demo.repository.TaskRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * A version read before a bulk change must be rejected afterwards: bulk
+ * statements bump the version like any other edit. Rolled back afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@WithMockUser(username = "conflict_test_owner", roles = "ADMIN")
+class TaskControllerConflictTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private TaskRepository repo;
+
+	private Long id;
+	private long version;
+
+	@BeforeEach
+	void insertTask() {
+		Task task = new Task();
+		task.setName("conflict");
+		task.setCreatedBy("conflict_test_owner");
+		task.setAssignTo("before");
+		task.setStatus(TaskStatus.TODO);
+		task.setCreateDate(LocalDateTime.of(2020, 1, 1, 12, 0));
+		Task saved = repo.saveAndFlush(task);
+		id = saved.getId();
+		version = saved.getVersion();
+	}
+
+	@Test
+	void patchWithVersionFromBeforeBulkReassignIsAConflict() throws Exception {
+		mvc.perform(post("/tasks/bulk").with(csrf())
+				.param("action", "reassign")
+				.param("ids", id.toString())
+				.param("assignTo", "after"))
+			.andExpect(status().is3xxRedirection());
+
+		assertEquals(version + 1, repo.findById(id).orElseThrow().getVersion());
+		mvc.perform(patchName(version)).andExpect(status().isConflict());
+		mvc.perform(patchName(version + 1)).andExpect(status().isOk());
+	}
+
+	@Test
+	void patchWithVersionFromBeforeBulkStatusChangeIsAConflict() throws Exception {
+		mvc.perform(post("/tasks/bulk").with(csrf())
+				.param("action", "status")
+				.param("ids", id.toString())
+				.param("status", TaskStatus.DONE.name()))
+			.andExpect(status().is3xxRedirection());
+
+		mvc.perform(patchName(version)).andExpect(status().isConflict());
+	}
+
+	private RequestBuilder patchName(long expectedVersion) {
+		return patch("/tasks/" + id).with(csrf())
+			.contentType(MediaType.APPLICATION_JSON)
+			.content("{\"version\":" + expectedVersion + ",\"name\":\"renamed\"}");
+	}
+}
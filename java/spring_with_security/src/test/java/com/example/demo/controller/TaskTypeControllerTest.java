@@ -0,0 +1,33 @@
+package com.example.demo.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * The task type list is open to everyone, including principals that are not
+ * AppUserPrincipal (sessions from an older deploy, mock users).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "task_type_viewer")
+class TaskTypeControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void otherPrincipalTypesGetTheReadOnlyList() throws Exception {
+		mvc.perform(get("/task-types"))
+				.andExpect(status().isOk())
+				.andExpect(model().attribute("canEdit", false))
+				.andExpect(model().attribute("username", "task_type_viewer"));
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.demo.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class MeteredPasswordEncoderTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final MeteredPasswordEncoder encoder = new MeteredPasswordEncoder(new PasswordEncoder() {
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return "{plain}" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			if (encodedPassword.startsWith("!")) {
+				throw new IllegalStateException("rejected");
+			}
+			return encodedPassword.equals(encode(rawPassword));
+		}
+	}, registry);
+
+	@Test
+	void recordsEveryVerificationOutcome() {
+		assertTrue(encoder.matches("secret", "{plain}secret"));
+		assertFalse(encoder.matches("wrong", "{plain}secret"));
+		assertThrows(IllegalStateException.class, () -> encoder.matches("secret", "!malformed"));
+
+		assertEquals(1, count("match"));
+		assertEquals(1, count("mismatch"));
+		assertEquals(1, count("error"));
+	}
+
+	private long count(String result) {
+		return registry.get("auth.password").tag("operation", "matches").tag("result", result).timer().count();
+	}
+}
@@ -0,0 +1,64 @@
+package com.example.demo.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+
+import com.example.demo.session.SessionAttributeCodec;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+class PrincipalRefreshFilterTest {
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void refreshedContextHoldsNoHashAndStaysCompact() throws Exception {
+		// Every session principal is stale; the database copy is generation 2 in a new department
+		PrincipalRefreshRegistry registry = new PrincipalRefreshRegistry(null, null) {
+			@Override
+			public boolean isStale(AppUserPrincipal principal) {
+				return principal.getGeneration() < 2;
+			}
+		};
+		PrincipalRefreshFilter filter = new PrincipalRefreshFilter(registry,
+				username -> principal("$argon2id$hash", "hr", 2));
+
+		AppUserPrincipal stale = principal("$argon2id$hash", "sales", 1);
+		stale.eraseCredentials();
+		SecurityContextHolder.setContext(new SecurityContextImpl(
+				UsernamePasswordAuthenticationToken.authenticated(stale, null, stale.getAuthorities())));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		SecurityContext saved = (SecurityContext) request.getSession()
+				.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+		AppUserPrincipal fresh = (AppUserPrincipal) saved.getAuthentication().getPrincipal();
+		assertEquals("hr", fresh.getDepartment());
+		assertEquals(2, fresh.getGeneration());
+		assertNull(fresh.getPassword());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SessionAttributeCodec(getClass().getClassLoader()).serialize(saved, out);
+		assertEquals(1, out.toByteArray()[0]);
+	}
+
+	private static AppUserPrincipal principal(String password, String department, long generation) {
+		return new AppUserPrincipal(5L, "carol", password, true,
+				AuthorityUtils.createAuthorityList("ROLE_USER"), department, generation);
+	}
+}
@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.demo.service.AssigneeIndex.SortedNames;
+import com.example.demo.service.AssigneeIndex.Suggestion;
+
+import org.junit.jupiter.api.Test;
+
+class AssigneeIndexSortedNamesTest {
+
+	@Test
+	void ordersCaseInsensitivelyThenByName() {
+		SortedNames names = of("bob", "Alice", "carol", "alice", "Bob");
+
+		assertEquals(List.of("Alice", "alice", "Bob", "bob", "carol"), prefix(names, "", 10));
+	}
+
+	@Test
+	void prefixIsCaseInsensitiveOnLowercasedInput() {
+		SortedNames names = of("Anna", "andrew", "ANDY", "bert", "an");
+
+		assertEquals(List.of("an", "andrew", "ANDY", "Anna"), prefix(names, "an", 10));
+		assertEquals(List.of("andrew", "ANDY"), prefix(names, "and", 10));
+		assertEquals(List.of(), prefix(names, "zed", 10));
+		assertEquals(List.of(), prefix(SortedNames.EMPTY, "a", 10));
+	}
+
+	@Test
+	void prefixStopsAtLimit() {
+		SortedNames names = of("a1", "a2", "a3", "a4", "b1");
+
+		assertEquals(List.of("a1", "a2"), prefix(names, "a", 2));
+		assertEquals(List.of("a1", "a2", "a3", "a4"), prefix(names, "a", 50));
+	}
+
+	@Test
+	void withKeepsTheOrderOfOf() {
+		SortedNames names = SortedNames.EMPTY;
+		for (String name : List.of("bob", "Alice", "carol", "alice", "Bob")) {
+			names = names.with(user(name));
+		}
+
+		assertEquals(prefix(of("bob", "Alice", "carol", "alice", "Bob"), "", 10), prefix(names, "", 10));
+	}
+
+	@Test
+	void withIgnoresDuplicatesButNotCaseVariants() {
+		SortedNames names = of("alice");
+
+		assertSame(names, names.with(user("alice")));
+		assertEquals(List.of("ALICE", "Alice", "alice"), prefix(names.with(user("ALICE")).with(user("Alice")), "al", 10));
+	}
+
+	@Test
+	void entriesCarryTheirDepartment() {
+		SortedNames names = SortedNames.of(List.of(new Suggestion("dora", "hr"), new Suggestion("Dan", null)));
+
+		assertEquals("hr", names.find("dora").department());
+		assertNull(names.find("dan"));
+		assertNull(names.find("Dan").department());
+
+		SortedNames moved = names.with(new Suggestion("dora", "sales"));
+		assertEquals("sales", moved.find("dora").department());
+		assertEquals("hr", names.find("dora").department());
+		assertEquals(List.of("Dan", "dora"), prefix(moved, "d", 10));
+	}
+
+	@Test
+	void withoutRemovesOnlyTheExactName() {
+		SortedNames names = of("Alice", "alice", "ALICE", "bob");
+
+		assertEquals(List.of("ALICE", "Alice", "bob"), prefix(names.without("alice"), "", 10));
+		assertEquals(List.of("alice", "bob"), prefix(names.without("Alice").without("ALICE"), "", 10));
+		assertSame(names, names.without("carol"));
+		assertSame(names, names.without("aLiCe"));
+	}
+
+	private static SortedNames of(String... names) {
+		return SortedNames.of(Arrays.stream(names).map(AssigneeIndexSortedNamesTest::user).toList());
+	}
+
+	private static Suggestion user(String name) {
+		return new Suggestion(name, null);
+	}
+
+	private static List<String> prefix(SortedNames names, String prefix, int limit) {
+		List<String> result = new ArrayList<>();
+		names.forPrefix(prefix, limit, user -> result.add(user.username()));
+		return result;
+	}
+}
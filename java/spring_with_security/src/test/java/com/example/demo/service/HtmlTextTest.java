@@ -0,0 +1,49 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class HtmlTextTest {
+
+	@Test
+	void tagsBecomeWordBreaks() {
+		assertEquals("Fix the login page", HtmlText.toPlainText("<p>Fix <b>the</b></p><p>login<br/>page</p>"));
+	}
+
+	@Test
+	void decodesNamedAndNumericEntities() {
+		assertEquals("a & b < c > d \" ' e", HtmlText.toPlainText("a &amp; b &lt; c &gt; d &quot; &apos;&nbsp;e"));
+		assertEquals("é € A", HtmlText.toPlainText("&#233; &#x20AC; &#X41;"));
+	}
+
+	@Test
+	void keepsUnknownAndInvalidEntitiesAsWritten() {
+		assertEquals("&copy; &#xZZ; & alone", HtmlText.toPlainText("&copy; &#xZZ; & alone"));
+		assertEquals("&#1114112;", HtmlText.toPlainText("&#1114112;"));
+	}
+
+	@Test
+	void replacesControlCharactersWithSpaces() {
+		assertEquals("a b c", HtmlText.toPlainText("a\u0001b&#1;c"));
+	}
+
+	@Test
+	void dropsScriptAndStyleBodies() {
+		assertEquals("before after", HtmlText.toPlainText(
+				"before<script type=\"x\">alert('<b>')</script><STYLE>p { color: red }</STYLE>after"));
+		assertEquals("text", HtmlText.toPlainText("text<script>never closed"));
+	}
+
+	@Test
+	void stopsAtAnUnterminatedTag() {
+		assertEquals("visible", HtmlText.toPlainText("visible<a href=\"broken"));
+	}
+
+	@Test
+	void passesNullAndEmptyThrough() {
+		assertNull(HtmlText.toPlainText(null));
+		assertEquals("", HtmlText.toPlainText(""));
+	}
+}
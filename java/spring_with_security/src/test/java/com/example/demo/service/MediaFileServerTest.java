@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import com.example.demo.service.MediaFileServer.Range;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+class MediaFileServerTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void parsesSingleRanges() {
+		assertEquals(new Range(0, 9), MediaFileServer.parseRange("bytes=0-9", 100));
+		assertEquals(new Range(90, 99), MediaFileServer.parseRange("bytes=90-200", 100));
+		assertEquals(new Range(10, 99), MediaFileServer.parseRange("bytes=10-", 100));
+		assertEquals(new Range(90, 99), MediaFileServer.parseRange("bytes=-10", 100));
+		assertEquals(new Range(0, 99), MediaFileServer.parseRange("bytes=-500", 100));
+	}
+
+	@Test
+	void rangesOutsideTheFileAreUnsatisfiable() {
+		assertSame(Range.UNSATISFIABLE, MediaFileServer.parseRange("bytes=-0", 100));
+		assertSame(Range.UNSATISFIABLE, MediaFileServer.parseRange("bytes=100-", 100));
+		assertSame(Range.UNSATISFIABLE, MediaFileServer.parseRange("bytes=150-160", 100));
+		assertSame(Range.UNSATISFIABLE, MediaFileServer.parseRange("bytes=0-", 0));
+		assertSame(Range.UNSATISFIABLE, MediaFileServer.parseRange("bytes=-5", 0));
+	}
+
+	@Test
+	void ignoresReversedMultipleAndMalformedRanges() {
+		assertNull(MediaFileServer.parseRange("bytes=9-0", 100));
+		assertNull(MediaFileServer.parseRange("bytes=0-1,5-6", 100));
+		assertNull(MediaFileServer.parseRange("items=0-9", 100));
+		assertNull(MediaFileServer.parseRange("bytes=5", 100));
+		assertNull(MediaFileServer.parseRange("bytes=a-b", 100));
+	}
+
+	@Test
+	void matchesEtags() {
+		String etag = "\"abc-1-2\"";
+
+		assertFalse(MediaFileServer.etagMatches(null, etag));
+		assertTrue(MediaFileServer.etagMatches(etag, etag));
+		assertTrue(MediaFileServer.etagMatches("W/" + etag, etag));
+		assertTrue(MediaFileServer.etagMatches("\"other\", " + etag, etag));
+		assertTrue(MediaFileServer.etagMatches("*", etag));
+		assertFalse(MediaFileServer.etagMatches("\"abc-1-3\"", etag));
+	}
+
+	@Test
+	void onlyAllowListedTypesAreServedAsImages() {
+		assertEquals("image/png", MediaFileServer.contentType("a.PNG"));
+		assertEquals("image/jpeg", MediaFileServer.contentType("a.jpeg"));
+		assertEquals("image/webp", MediaFileServer.contentType("a.webp"));
+		assertEquals("application/octet-stream", MediaFileServer.contentType("a.svg"));
+		assertEquals("application/octet-stream", MediaFileServer.contentType("a.html"));
+		assertEquals("application/octet-stream", MediaFileServer.contentType("noextension"));
+	}
+
+	@Test
+	void ifRangeDecidesBetweenPartialAndFullContent() throws Exception {
+		MediaFileServer server = new MediaFileServer(100, DataSize.ofKilobytes(48), Duration.ofDays(365));
+		byte[] content = new byte[100];
+		Arrays.fill(content, (byte) 'x');
+		content[10] = 'y';
+		Path file = Files.write(dir.resolve("picture.png"), content);
+
+		MockHttpServletResponse first = serve(server, file, null, null);
+		String etag = first.getHeader(HttpHeaders.ETAG);
+		assertEquals(200, first.getStatus());
+
+		MockHttpServletResponse partial = serve(server, file, "bytes=10-19", etag);
+		assertEquals(206, partial.getStatus());
+		assertEquals("bytes 10-19/100", partial.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(Arrays.copyOfRange(content, 10, 20), partial.getContentAsByteArray());
+
+		// Stale validator: the whole current file instead of a piece of it
+		MockHttpServletResponse full = serve(server, file, "bytes=10-19", "\"stale\"");
+		assertEquals(200, full.getStatus());
+		assertNull(full.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(content, full.getContentAsByteArray());
+
+		MockHttpServletResponse outside = serve(server, file, "bytes=100-", null);
+		assertEquals(416, outside.getStatus());
+		assertEquals("bytes */100", outside.getHeader(HttpHeaders.CONTENT_RANGE));
+	}
+
+	private static MockHttpServletResponse serve(MediaFileServer server, Path file, String range, String ifRange)
+			throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/" + file.getFileName());
+		if (range != null) {
+			request.addHeader(HttpHeaders.RANGE, range);
+		}
+		if (ifRange != null) {
+			request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		server.serve(file, request, response);
+		return response;
+	}
+}
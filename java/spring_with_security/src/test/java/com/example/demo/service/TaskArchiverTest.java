@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.example.demo.model.Task;
+import com.example.demo.model.TaskStatus;
+import com.example.demo.repository.TaskRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * done_at bookkeeping and archiving by it, against the application database.
+ * Rolled back afterwards, archive runs included.
+ */
+@SpringBootTest
+@Transactional
+@WithMockUser(username = "archive_test_owner", roles = "ADMIN")
+class TaskArchiverTest {
+
+	private static final LocalDateTime LONG_AGO = LocalDateTime.of(2000, 1, 1, 12, 0);
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskArchiver archiver;
+
+	@Autowired
+	private TaskRepository repo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void doneAtFollowsTheStatus() {
+		Task task = insert(TaskStatus.TODO);
+		assertNull(doneAt(task.getId()));
+
+		long version = taskService.patch(task.getId(), task.getVersion(), statusPatch(TaskStatus.DONE));
+		LocalDateTime done = doneAt(task.getId());
+		assertNotNull(done);
+
+		// Unchanged status keeps the first stamp
+		version = taskService.patch(task.getId(), version, statusPatch(TaskStatus.DONE));
+		assertEquals(done, doneAt(task.getId()));
+
+		taskService.patch(task.getId(), version, statusPatch(TaskStatus.IN_PROGRESS));
+		assertNull(doneAt(task.getId()));
+
+		taskService.changeStatus(List.of(task.getId()), TaskStatus.DONE);
+		assertNotNull(doneAt(task.getId()));
+	}
+
+	@Test
+	void archivesByDoneAtNotByCreateDate() {
+		Task finishedLongAgo = insert(TaskStatus.DONE);
+		Task finishedToday = insert(TaskStatus.DONE);
+		jdbcTemplate.update("UPDATE tasks SET done_at = ? WHERE id = ?", Timestamp.valueOf(LONG_AGO), finishedLongAgo.getId());
+
+		assertTrue(archiver.archive() >= 1);
+
+		assertFalse(repo.existsById(finishedLongAgo.getId()));
+		assertEquals(LONG_AGO, jdbcTemplate.queryForObject(
+				"SELECT done_at FROM tasks_archive WHERE id = ?", LocalDateTime.class, finishedLongAgo.getId()));
+		assertTrue(repo.existsById(finishedToday.getId()));
+	}
+
+	private Task insert(TaskStatus status) {
+		Task task = new Task();
+		task.setName("archive " + status);
+		task.setCreatedBy("archive_test_owner");
+		task.setStatus(status);
+		task.setCreateDate(LONG_AGO);
+		return repo.saveAndFlush(task);
+	}
+
+	private LocalDateTime doneAt(Long id) {
+		return jdbcTemplate.queryForObject("SELECT done_at FROM tasks WHERE id = ?", LocalDateTime.class, id);
+	}
+
+	private static TaskPatch statusPatch(TaskStatus status) {
+		return new TaskPatch(null, null, null, status);
+	}
+}
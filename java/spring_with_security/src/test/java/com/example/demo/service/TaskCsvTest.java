@@ -0,0 +1,104 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TaskCsvTest {
+
+	@Test
+	void readsQuotedCommasNewlinesAndEscapedQuotes() throws IOException {
+		try (TaskCsv.RecordReader reader = reader("a,\"b, c\",\"line 1\nline 2\",\"say \"\"hi\"\"\"\nnext\n")) {
+			assertEquals(List.of("a", "b, c", "line 1\nline 2", "say \"hi\""), reader.next());
+			// The quoted newline counts as a line of its own
+			assertEquals(3, reader.line());
+			assertEquals(List.of("next"), reader.next());
+			assertNull(reader.next());
+		}
+	}
+
+	@Test
+	void splitsRecordsOnCrlfAndKeepsEmptyFields() throws IOException {
+		try (TaskCsv.RecordReader reader = reader("a,,c\r\n,\r\nlast")) {
+			assertEquals(List.of("a", "", "c"), reader.next());
+			assertEquals(2, reader.line());
+			assertEquals(List.of("", ""), reader.next());
+			assertEquals(3, reader.line());
+			assertEquals(List.of("last"), reader.next());
+			assertNull(reader.next());
+		}
+	}
+
+	@Test
+	void unterminatedQuoteStopsAtTheFieldLimit() throws IOException {
+		char[] rest = new char[1000];
+		Arrays.fill(rest, 'x');
+		try (TaskCsv.RecordReader reader = reader("ok\n\"never closed," + new String(rest))) {
+			reader.next();
+			TaskCsv.CsvFormatException e = assertThrows(TaskCsv.CsvFormatException.class, reader::next);
+			assertTrue(e.getMessage().contains("longer than 64"), e.getMessage());
+			assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+		}
+	}
+
+	@Test
+	void unterminatedQuoteAtEndOfInputIsAFormatError() throws IOException {
+		try (TaskCsv.RecordReader reader = reader("\"open")) {
+			assertThrows(TaskCsv.CsvFormatException.class, reader::next);
+		}
+	}
+
+	@Test
+	void rejectsTextAfterAClosingQuote() throws IOException {
+		try (TaskCsv.RecordReader reader = reader("\"a\"b,c")) {
+			assertThrows(TaskCsv.CsvFormatException.class, reader::next);
+		}
+	}
+
+	@Test
+	void headerWithByteOrderMarkIsRecognised() throws IOException {
+		try (TaskCsv.RecordReader reader = reader("\uFEFFName,status\r\n")) {
+			Map<String, Integer> columns = TaskCsvService.readHeader(reader.next());
+			assertEquals(Map.of("name", 0, "status", 1), columns);
+		}
+	}
+
+	@Test
+	void escapesFormulaCellsOnExport() throws IOException {
+		StringWriter out = new StringWriter();
+		TaskCsv.writeRecord(out, List.of("=SUM(A1)", "+1", "-1", "@x", "\tx", "\rx", "plain", "'=x"));
+		assertEquals("\"'=SUM(A1)\",\"'+1\",\"'-1\",\"'@x\",\"'\tx\",\"'\rx\",plain,\"''=x\"\r\n", out.toString());
+	}
+
+	@Test
+	void exportedCellsReadBackUnchanged() throws IOException {
+		List<String> values = List.of("=SUM(A1)", "\tx", "'=x", "''@x", "it's", "a, \"b\"", "");
+		StringWriter out = new StringWriter();
+		TaskCsv.writeRecord(out, values);
+		try (TaskCsv.RecordReader reader = reader(out.toString())) {
+			assertEquals(values, reader.next().stream().map(TaskCsv::unescapeFormula).toList());
+		}
+	}
+
+	@Test
+	void unescapeOnlyStripsAQuoteBeforeAFormulaStart() {
+		assertEquals("=x", TaskCsv.unescapeFormula("'=x"));
+		assertEquals("'x", TaskCsv.unescapeFormula("'x"));
+		assertEquals("'", TaskCsv.unescapeFormula("'"));
+		assertEquals("x'=", TaskCsv.unescapeFormula("x'="));
+	}
+
+	private static TaskCsv.RecordReader reader(String csv) {
+		return new TaskCsv.RecordReader(new StringReader(csv), 64);
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class TaskCursorTest {
+
+	@Test
+	void roundTripsThroughItsToken() {
+		TaskCursor cursor = new TaskCursor(LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_000_000), 42L);
+		assertEquals(cursor, TaskCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void tokenIsUrlSafe() {
+		String token = new TaskCursor(LocalDateTime.of(2025, 1, 1, 0, 0), Long.MAX_VALUE).encode();
+		assertEquals(-1, indexOfAny(token, "+/=?&"), token);
+	}
+
+	@Test
+	void rejectsTokenThatIsNotBase64() {
+		assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("not a cursor!"));
+	}
+
+	@Test
+	void rejectsTokenWithoutSeparator() {
+		assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(token("2025-01-01T00:00")));
+	}
+
+	@Test
+	void rejectsBadDate() {
+		assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(token("yesterday|42")));
+	}
+
+	@Test
+	void rejectsBadId() {
+		assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(token("2025-01-01T00:00|x")));
+	}
+
+	private static String token(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static int indexOfAny(String value, String chars) {
+		for (int i = 0; i < value.length(); i++) {
+			if (chars.indexOf(value.charAt(i)) >= 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,151 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.demo.model.Task;
+import com.example.demo.model.TaskStatus;
+import com.example.demo.repository.TaskRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Keyset paging of TaskService.findPage against the application database
+ * (DB_URL, as for the application itself). Every test works on its own rows,
+ * told apart by created_by, and is rolled back afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ TaskService.class, TaskCounters.class })
+class TaskServicePagingTest {
+
+	private static final String OWNER = "paging_test_owner";
+	private static final LocalDateTime T0 = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRepository repo;
+
+	// Oldest first; the three tasks at T0 + 1m share a create_date, so only id orders them
+	private final List<Long> ids = new ArrayList<>();
+
+	@BeforeEach
+	void insertTasks() {
+		int[] minutes = { 0, 1, 1, 1, 2, 3, 4 };
+		for (int i = 0; i < minutes.length; i++) {
+			Task task = new Task();
+			task.setName("paging " + i);
+			task.setCreatedBy(OWNER);
+			task.setAssignTo(i % 2 == 0 ? "even" : "odd");
+			task.setStatus(TaskStatus.TODO);
+			task.setCreateDate(T0.plusMinutes(minutes[i]));
+			ids.add(repo.save(task).getId());
+		}
+	}
+
+	@Test
+	void walksForwardToTheLastPage() {
+		TaskListQuery query = query(false, null);
+
+		TaskPage first = taskService.findPage(query, null, null);
+		assertEquals(ids.subList(0, 3), idsOf(first));
+		assertNull(first.previousCursor());
+		assertNotNull(first.nextCursor());
+
+		TaskPage second = taskService.findPage(query, TaskCursor.decode(first.nextCursor()), null);
+		assertEquals(ids.subList(3, 6), idsOf(second));
+		assertNotNull(second.previousCursor());
+
+		TaskPage last = taskService.findPage(query, TaskCursor.decode(second.nextCursor()), null);
+		assertEquals(ids.subList(6, 7), idsOf(last));
+		assertNull(last.nextCursor());
+		assertNotNull(last.previousCursor());
+	}
+
+	@Test
+	void walksBackToTheFirstPage() {
+		TaskListQuery query = query(false, null);
+		TaskPage first = taskService.findPage(query, null, null);
+		TaskPage second = taskService.findPage(query, TaskCursor.decode(first.nextCursor()), null);
+		TaskPage last = taskService.findPage(query, TaskCursor.decode(second.nextCursor()), null);
+
+		TaskPage backToSecond = taskService.findPage(query, null, TaskCursor.decode(last.previousCursor()));
+		assertEquals(idsOf(second), idsOf(backToSecond));
+		assertNotNull(backToSecond.nextCursor());
+		assertNotNull(backToSecond.previousCursor());
+
+		TaskPage backToFirst = taskService.findPage(query, null, TaskCursor.decode(backToSecond.previousCursor()));
+		assertEquals(idsOf(first), idsOf(backToFirst));
+		assertNull(backToFirst.previousCursor());
+		assertEquals(first.nextCursor(), backToFirst.nextCursor());
+	}
+
+	@Test
+	void newestFirstReversesTheWalk() {
+		TaskListQuery query = query(true, null);
+
+		TaskPage first = taskService.findPage(query, null, null);
+		assertEquals(List.of(ids.get(6), ids.get(5), ids.get(4)), idsOf(first));
+
+		// Splits the three tasks that share a create_date, ordered by id descending
+		TaskPage second = taskService.findPage(query, TaskCursor.decode(first.nextCursor()), null);
+		assertEquals(List.of(ids.get(3), ids.get(2), ids.get(1)), idsOf(second));
+
+		TaskPage back = taskService.findPage(query, null, TaskCursor.decode(second.previousCursor()));
+		assertEquals(idsOf(first), idsOf(back));
+		assertNull(back.previousCursor());
+	}
+
+	@Test
+	void lastPageThatIsExactlyFullHasNoNextCursor() {
+		// Exactly one page of "odd" tasks: the extra row fetched to detect a next page is not there
+		TaskListQuery query = new TaskListQuery(null, "odd", OWNER, false, 3);
+
+		TaskPage only = taskService.findPage(query, null, null);
+		assertEquals(List.of(ids.get(1), ids.get(3), ids.get(5)), idsOf(only));
+		assertNull(only.nextCursor());
+		assertNull(only.previousCursor());
+	}
+
+	@Test
+	void filtersApplyWhileSeeking() {
+		TaskListQuery query = query(false, "even");
+
+		TaskPage first = taskService.findPage(query, null, null);
+		assertEquals(List.of(ids.get(0), ids.get(2), ids.get(4)), idsOf(first));
+
+		TaskPage last = taskService.findPage(query, TaskCursor.decode(first.nextCursor()), null);
+		assertEquals(List.of(ids.get(6)), idsOf(last));
+		assertNull(last.nextCursor());
+	}
+
+	@Test
+	void cursorPastTheEndGivesAnEmptyPage() {
+		TaskCursor beyond = new TaskCursor(T0.plusYears(1), Long.MAX_VALUE);
+
+		TaskPage page = taskService.findPage(query(false, null), beyond, null);
+		assertEquals(List.of(), page.tasks());
+		assertNull(page.nextCursor());
+		assertNull(page.previousCursor());
+	}
+
+	private static TaskListQuery query(boolean newestFirst, String assignTo) {
+		return new TaskListQuery(null, assignTo, OWNER, newestFirst, 3);
+	}
+
+	private static List<Long> idsOf(TaskPage page) {
+		return page.tasks().stream().map(Task::getId).toList();
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Case-insensitive usernames (availability, registration, lookups) and the
+ * cross-node filter stamp, against the application database. Rolled back afterwards, filter rebuilds included.
+ */
+@SpringBootTest
+@Transactional
+class UsernameAvailabilityTest {
+
+	private static final String PASSWORD = "Availability#Test1";
+
+	@Autowired
+	private UsernameAvailability availability;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void registrationRejectsNamesTakenInAnotherCase() {
+		userService.registerUser("Avail_Case_Test", PASSWORD, false);
+
+		assertFalse(availability.check("avail_case_test").available());
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> userService.registerUser("AVAIL_CASE_TEST", PASSWORD, false));
+		assertTrue(e.getMessage().contains("already exists"));
+	}
+
+	@Test
+	void lookupsIgnoreCase() {
+		userService.registerUser("Avail_Lookup_Test", PASSWORD, false);
+
+		UserDetails loaded = userDetailsService.loadUserByUsername("avail_lookup_test");
+		assertEquals("Avail_Lookup_Test", loaded.getUsername());
+		assertEquals("Ops", userService.updateDepartment("AVAIL_LOOKUP_TEST", "Ops").getDepartment());
+	}
+
+	@Test
+	void databaseRejectsCaseVariants() {
+		insertAsAnotherNode("avail_index_test");
+
+		assertThrows(DataIntegrityViolationException.class, () -> insertAsAnotherNode("Avail_Index_Test"));
+	}
+
+	@Test
+	void registrationOnAnotherNodeIsSeenAfterThePoll() {
+		// Registrations of other tests were rolled back, but their stamps are still in memory
+		availability.rebuild();
+		assertTrue(availability.check("avail_remote_test").available());
+
+		insertAsAnotherNode("Avail_Remote_Test");
+		availability.pollVersion();
+
+		assertFalse(availability.check("avail_remote_test").available());
+		assertTrue(availability.mightExist("AVAIL_REMOTE_TEST"));
+	}
+
+	// What another node's registration leaves in the database: the row and a bumped stamp
+	private void insertAsAnotherNode(String username) {
+		jdbcTemplate.update("INSERT INTO users (username, password, roles, enabled) VALUES (?, 'x', 'USER', true)", username);
+		jdbcTemplate.update("UPDATE reference_data_version SET version = version + 1 WHERE name = 'usernames'");
+	}
+}
@@ -0,0 +1,41 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class UsernameBloomFilterTest {
+
+	@Test
+	void neverReportsAPutNameAsAbsent() {
+		UsernameBloomFilter filter = UsernameBloomFilter.create(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user_" + i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("user_" + i));
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		UsernameBloomFilter filter = UsernameBloomFilter.create(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user_" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other_" + i)) {
+				falsePositives++;
+			}
+		}
+		// 1% target; allow for hash variance
+		assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		assertFalse(UsernameBloomFilter.create(100, 0.01).mightContain("alice"));
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.demo.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.security.AppUserPrincipal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+class SessionAttributeCodecTest {
+
+	private final SessionAttributeCodec codec = new SessionAttributeCodec(getClass().getClassLoader());
+
+	@Test
+	void securityContextUsesTheCompactFormat() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr("10.0.0.7");
+		request.setSession(new MockHttpSession(null, "session-1"));
+		SecurityContext context = context(principal(42L, "project_management", 7),
+				new WebAuthenticationDetails(request));
+
+		byte[] bytes = serialize(context);
+		assertEquals(1, bytes[0]);
+		assertTrue(bytes.length < 200, "compact form is " + bytes.length + " bytes");
+
+		Authentication auth = ((SecurityContext) deserialize(bytes)).getAuthentication();
+		assertInstanceOf(UsernamePasswordAuthenticationToken.class, auth);
+		assertTrue(auth.isAuthenticated());
+		assertNull(auth.getCredentials());
+		assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), names(auth.getAuthorities()));
+
+		AppUserPrincipal principal = (AppUserPrincipal) auth.getPrincipal();
+		assertEquals("alice", principal.getUsername());
+		assertEquals(42L, principal.getId());
+		assertEquals("project_management", principal.getDepartment());
+		assertEquals(7, principal.getGeneration());
+		assertTrue(principal.isEnabled());
+		assertNull(principal.getPassword());
+		assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), names(principal.getAuthorities()));
+
+		WebAuthenticationDetails details = (WebAuthenticationDetails) auth.getDetails();
+		assertEquals("10.0.0.7", details.getRemoteAddress());
+		assertEquals("session-1", details.getSessionId());
+	}
+
+	@Test
+	void compactFormatKeepsNullFields() throws IOException {
+		byte[] bytes = serialize(context(principal(null, null, 0), null));
+		assertEquals(1, bytes[0]);
+
+		Authentication auth = ((SecurityContext) deserialize(bytes)).getAuthentication();
+		AppUserPrincipal principal = (AppUserPrincipal) auth.getPrincipal();
+		assertNull(principal.getId());
+		assertNull(principal.getDepartment());
+		assertEquals(0, principal.getGeneration());
+		assertNull(auth.getDetails());
+	}
+
+	@Test
+	void contextWithCredentialsFallsBackToJavaSerialization() throws IOException {
+		AppUserPrincipal principal = new AppUserPrincipal(1L, "bob", "hash", true,
+				AuthorityUtils.createAuthorityList("ROLE_USER"), "hr", 3);
+		SecurityContext context = new SecurityContextImpl(
+				UsernamePasswordAuthenticationToken.authenticated(principal, "secret", principal.getAuthorities()));
+
+		byte[] bytes = serialize(context);
+		assertEquals(0, bytes[0]);
+
+		Authentication auth = ((SecurityContext) deserialize(bytes)).getAuthentication();
+		AppUserPrincipal restored = (AppUserPrincipal) auth.getPrincipal();
+		assertEquals("bob", restored.getUsername());
+		assertEquals("hr", restored.getDepartment());
+		assertEquals(3, restored.getGeneration());
+		assertEquals("secret", auth.getCredentials());
+	}
+
+	@Test
+	void otherAttributesUseJavaSerialization() throws IOException {
+		Map<String, Object> flash = new LinkedHashMap<>();
+		flash.put("message", "Saved");
+		flash.put("count", 3);
+
+		byte[] bytes = serialize(flash);
+		assertEquals(0, bytes[0]);
+		assertEquals(flash, deserialize(bytes));
+	}
+
+	@Test
+	void rejectsAnUnknownFormatByte() {
+		assertThrows(IOException.class, () -> deserialize(new byte[] { 9, 0, 0 }));
+	}
+
+	private static AppUserPrincipal principal(Long id, String department, long generation) {
+		AppUserPrincipal principal = new AppUserPrincipal(id, "alice", "hash", true,
+				AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"), department, generation);
+		// As after login: the session never holds the hash
+		principal.eraseCredentials();
+		return principal;
+	}
+
+	private static SecurityContext context(AppUserPrincipal principal, Object details) {
+		UsernamePasswordAuthenticationToken token =
+				UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+		token.setDetails(details);
+		return new SecurityContextImpl(token);
+	}
+
+	private static List<String> names(Collection<? extends GrantedAuthority> authorities) {
+		return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+	}
+
+	private byte[] serialize(Object value) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.serialize(value, out);
+		return out.toByteArray();
+	}
+
+	private Object deserialize(byte[] bytes) throws IOException {
+		return codec.deserialize(new ByteArrayInputStream(bytes));
+	}
+}
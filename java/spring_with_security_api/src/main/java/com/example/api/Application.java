@@ -5,10 +5,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@SpringBootApplication
+// com.example.common: shared components from spring_common (query stats, JFR, audit)
+@SpringBootApplication(scanBasePackages = { "com.example.api", "com.example.common" })
+@EnableScheduling
 public class Application {
 
     private static final Logger logger = LoggerFactory.getLogger(Application.class);
@@ -1,9 +1,12 @@
 package com.example.api.config;
 
+import com.example.api.diagnostics.JwtVerificationEvent;
+import com.example.api.security.BCryptCalibrator;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,6 +16,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,9 +26,12 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.core.annotation.Order;
 
@@ -43,9 +50,26 @@ public class SecurityConfig {
     @Value("${jwt.audience:secureapp-client}")
     private String jwtAudience;
 
+    @Value("${app.password-hashing.calibration-file:password-hashing.properties}")
+    private String passwordCalibrationFile;
+
+    @Value("${app.password-hashing.target-latency:250ms}")
+    private Duration passwordTargetLatency;
+
+    @Value("${app.password-hashing.recalibrate:false}")
+    private boolean passwordRecalibrate;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // Strength calibrated for this host; hashes with a lower strength, or stored
+        // before the {bcrypt} prefix was introduced, are rehashed on login
+        int strength = new BCryptCalibrator(
+                Path.of(passwordCalibrationFile), passwordTargetLatency, passwordRecalibrate).resolveStrength();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
@@ -75,6 +99,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 "/api/account/is-first-user",
+                                "/api/account/username-available",
                                 "/api/account/setup",
                                 "/api/account/register",
                                 "/api/account/login",
@@ -85,6 +110,8 @@ public class SecurityConfig {
                                 "/v3/api-docs/swagger-config"
                                 )
                         .permitAll()
+                        // Probes and the Prometheus scrape; served on the management port only
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .requestMatchers("/api/recipes/**").authenticated()  // Requires JWT token
 
                         .anyRequest().authenticated())
@@ -121,14 +148,23 @@ public class SecurityConfig {
         }
 
         public Claims validateToken(String token) {
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .requireIssuer(issuer)
-                    .requireAudience(audience)
-                    .clockSkewSeconds(60)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            JwtVerificationEvent event = new JwtVerificationEvent();
+            event.begin();
+            try {
+                Claims claims = Jwts.parser()
+                        .verifyWith(key)
+                        .requireIssuer(issuer)
+                        .requireAudience(audience)
+                        .clockSkewSeconds(60)
+                        .build()
+                        .parseSignedClaims(token)
+                        .getPayload();
+                event.finish(true, null);
+                return claims;
+            } catch (RuntimeException ex) {
+                event.finish(false, ex.getClass().getSimpleName());
+                throw ex;
+            }
         }
 
         public String getUsernameFromToken(String token) {
@@ -1,8 +1,11 @@
 package com.example.api.controllers;
 
 import com.example.api.config.SecurityConfig;
+import com.example.api.metrics.ApiMetrics;
+import com.example.api.metrics.ApiMetrics.LoginOutcome;
 import com.example.api.models.AppUser;
 import com.example.api.services.IUserService;
+import com.example.api.services.UsernameAvailability;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,12 +25,18 @@ public class AccountController {
 
     private final IUserService userService;
     private final SecurityConfig.JwtTokenProvider jwtTokenProvider;
+    private final ApiMetrics metrics;
+    private final UsernameAvailability usernameAvailability;
 
     public AccountController(
             IUserService userService,
-            SecurityConfig.JwtTokenProvider jwtTokenProvider) {
+            SecurityConfig.JwtTokenProvider jwtTokenProvider,
+            ApiMetrics metrics,
+            UsernameAvailability usernameAvailability) {
         this.userService = userService;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.metrics = metrics;
+        this.usernameAvailability = usernameAvailability;
     }
 
     // DTOs
@@ -41,6 +50,12 @@ public class AccountController {
         return ResponseEntity.ok(userService.isFirstUser());
     }
 
+    // As-you-type check for signup forms; the database is only asked when the name might be taken
+    @GetMapping("/username-available")
+    public ResponseEntity<UsernameAvailability.Result> usernameAvailable(@RequestParam String userName) {
+        return ResponseEntity.ok(usernameAvailability.check(userName));
+    }
+
     @PostMapping("/setup")
     public ResponseEntity<?> setup(@RequestBody RegisterRequest request) {
         try {
@@ -68,9 +83,11 @@ public class AccountController {
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+        long start = System.nanoTime();
         var userOpt = userService.findByUserName(request.userName());
         
         if (userOpt.isEmpty()) {
+            metrics.recordLogin(start, LoginOutcome.UNKNOWN_USER);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid credentials"));
         }
@@ -78,15 +95,22 @@ public class AccountController {
         AppUser user = userOpt.get();
         
         if (!user.isEnabled()) {
+            metrics.recordLogin(start, LoginOutcome.DISABLED);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid credentials"));
         }
 
-        if (!userService.verifyPassword(user, request.password())) {
+        long verifyStart = System.nanoTime();
+        boolean passwordOk = userService.verifyPassword(user, request.password());
+        metrics.recordPasswordVerify(verifyStart);
+        if (!passwordOk) {
+            metrics.recordLogin(start, LoginOutcome.BAD_PASSWORD);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid credentials"));
         }
 
+        userService.upgradePasswordIfNeeded(user, request.password());
+
         List<String> roles = Arrays.stream(user.getRoles().split(","))
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
@@ -95,6 +119,7 @@ public class AccountController {
         String token = jwtTokenProvider.generateToken(user.getUserName(), roles);
 
         MeResponse me = new MeResponse(user.getUserName(), roles);
+        metrics.recordLogin(start, LoginOutcome.SUCCESS);
         return ResponseEntity.ok(new LoginResponse(token, me));
     }
 
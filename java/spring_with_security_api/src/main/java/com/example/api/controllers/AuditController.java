@@ -0,0 +1,37 @@
+package com.example.api.controllers;
+
+import com.example.common.audit.AuditEvent;
+import com.example.common.audit.AuditLog;
+import com.example.common.audit.AuditQuery;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+// Query API over the audit segments, newest first
+@RestController
+@RequestMapping("/api/admin/audit")
+@PreAuthorize("hasRole('ADMIN')")
+public class AuditController {
+
+    private final AuditLog auditLog;
+
+    public AuditController(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AuditEvent>> query(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String entityId,
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "" + AuditQuery.DEFAULT_LIMIT) int limit) throws IOException {
+        return ResponseEntity.ok(auditLog.query(new AuditQuery(entityType, entityId, actor, from, to, limit)));
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.api.controllers;
 
+import com.example.api.dto.RecipeBatchRequest;
+import com.example.api.dto.RecipeBatchResponse;
+import com.example.api.dto.RecipeBulkStatusRequest;
+import com.example.api.dto.RecipeBulkStatusResponse;
 import com.example.api.dto.RecipeRequest;
 import com.example.api.dto.RecipeResponse;
 import com.example.api.models.Recipe.RecipeStatus;
@@ -56,6 +60,18 @@ public class RecipeController {
         return ResponseEntity.ok(recipeService.getRecipeById(id));
     }
 
+    // Batch fetch - GET /api/recipes?ids=1,2,3 (or repeated ids=...)
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getRecipesByIds(@RequestParam List<Long> ids) {
+        return batchFetch(ids);
+    }
+
+    // Batch fetch for id lists too long for a query string
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getRecipesByIdsBatch(@Valid @RequestBody RecipeBatchRequest request) {
+        return batchFetch(request.getIds());
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<RecipeResponse>> getRecipesByStatus(@PathVariable RecipeStatus status) {
         return ResponseEntity.ok(recipeService.getRecipesByStatus(status));
@@ -95,6 +111,18 @@ public class RecipeController {
         return ResponseEntity.ok(recipeService.updateRecipeStatus(id, status));
     }
 
+    // Bulk status transition - by id list or by filter (fromStatus + createdBefore)
+    @PatchMapping(value = "/status", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> updateRecipeStatusBulk(@Valid @RequestBody RecipeBulkStatusRequest request) {
+        try {
+            RecipeBulkStatusResponse response = recipeService.updateRecipeStatusBulk(request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
     @PatchMapping("/{id}/image")
     public ResponseEntity<RecipeResponse> updateRecipeImage(
             @PathVariable Long id,
@@ -121,6 +149,16 @@ public class RecipeController {
                 "message", "Image uploaded successfully"));
     }
 
+    private ResponseEntity<?> batchFetch(List<Long> ids) {
+        try {
+            RecipeBatchResponse response = recipeService.getRecipesByIds(ids);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
     private RecipeRequest buildRecipeRequest(RecipeRequest request) throws IOException {
 
         RecipeRequest.RecipeRequestBuilder builder = RecipeRequest.builder()
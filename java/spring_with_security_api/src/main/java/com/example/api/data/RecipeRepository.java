@@ -2,13 +2,45 @@ package com.example.api.data;
 
 import com.example.api.models.Recipe;
 import com.example.api.models.Recipe.RecipeStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findByStatus(RecipeStatus status);
     List<Recipe> findByNameContainingIgnoreCase(String name);
-}
\ No newline at end of file
+
+    // Id + status only, row-locked so the bulk UPDATE that follows sees the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.id as id, r.status as status from Recipe r where r.id in :ids")
+    List<RecipeStatusView> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Set-based status transition; @UpdateTimestamp is not applied to bulk updates, so updatedAt is set here
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Recipe r set r.status = :status, r.updatedAt = :now where r.id in :ids and r.status <> :status")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("status") RecipeStatus status,
+                           @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Recipe r set r.status = :status, r.updatedAt = :now "
+            + "where r.status = :fromStatus and r.createdAt < :createdBefore")
+    int updateStatusByFilter(@Param("fromStatus") RecipeStatus fromStatus,
+                             @Param("createdBefore") LocalDateTime createdBefore,
+                             @Param("status") RecipeStatus status,
+                             @Param("now") LocalDateTime now);
+
+    interface RecipeStatusView {
+        Long getId();
+        RecipeStatus getStatus();
+    }
+}
@@ -2,11 +2,18 @@ package com.example.api.data;
 
 import com.example.api.models.AppUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<AppUser, Long> {
     Optional<AppUser> findByUserName(String userName);
 
-    boolean existsByUserNameIgnoreCase(String userName);
+    // Derived IgnoreCase queries compare upper(); lower() matches uq_users_username_lower
+    @Query("select count(u) > 0 from AppUser u where lower(u.userName) = lower(:userName)")
+    boolean existsByUserNameIgnoreCase(@Param("userName") String userName);
+
+    @Query("select u from AppUser u where lower(u.userName) = lower(:userName)")
+    Optional<AppUser> findByUserNameIgnoreCase(@Param("userName") String userName);
 
 }
@@ -0,0 +1,41 @@
+package com.example.api.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.api.FetchPhase")
+@Label("Image Fetch Phase")
+@Description("One phase of a trusted-domain image fetch: dns, connect (TCP, TLS and response headers) or download")
+@Category({ "SecureFromScratch API", "Image Fetch" })
+@Enabled(false)
+@StackTrace(false)
+public class FetchPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Host")
+    String host;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Success")
+    boolean success;
+
+    public void finish(String phase, String host, long bytes, boolean success) {
+        if (shouldCommit()) {
+            this.phase = phase;
+            this.host = host;
+            this.bytes = bytes;
+            this.success = success;
+            commit();
+        }
+    }
+}
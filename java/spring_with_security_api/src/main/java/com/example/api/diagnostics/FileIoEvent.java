@@ -0,0 +1,43 @@
+package com.example.api.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.api.FileIo")
+@Label("Upload File I/O")
+@Description("Write or delete of a stored upload")
+@Category({ "SecureFromScratch API", "Files" })
+@Enabled(false)
+@StackTrace(false)
+public class FileIoEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("write or delete")
+    String operation;
+
+    // Server-generated UUID name, never the client-supplied one
+    @Label("File Name")
+    String fileName;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Success")
+    boolean success;
+
+    public void finish(String operation, String fileName, long bytes, boolean success) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.fileName = fileName;
+            this.bytes = bytes;
+            this.success = success;
+            commit();
+        }
+    }
+}
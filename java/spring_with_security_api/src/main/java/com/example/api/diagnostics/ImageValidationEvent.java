@@ -0,0 +1,42 @@
+package com.example.api.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.api.ImageValidation")
+@Label("Image Validation")
+@Description("Size, extension and magic-byte checks on an uploaded or fetched image")
+@Category({ "SecureFromScratch API", "Files" })
+@Enabled(false)
+@StackTrace(false)
+public class ImageValidationEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    @Description("file or url")
+    String source;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Extension")
+    String extension;
+
+    @Label("Accepted")
+    boolean accepted;
+
+    public void finish(String source, long bytes, String extension, boolean accepted) {
+        if (shouldCommit()) {
+            this.source = source;
+            this.bytes = bytes;
+            this.extension = extension;
+            this.accepted = accepted;
+            commit();
+        }
+    }
+}
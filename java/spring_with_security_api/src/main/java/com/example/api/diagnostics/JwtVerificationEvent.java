@@ -0,0 +1,32 @@
+package com.example.api.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.api.JwtVerification")
+@Label("JWT Verification")
+@Description("Signature, issuer, audience and expiry check of a bearer token")
+@Category({ "SecureFromScratch API", "Security" })
+@Enabled(false)
+@StackTrace(false)
+public class JwtVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Valid")
+    boolean valid;
+
+    @Label("Failure")
+    @Description("Exception type when the token was rejected")
+    String failure;
+
+    public void finish(boolean valid, String failure) {
+        if (shouldCommit()) {
+            this.valid = valid;
+            this.failure = failure;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.api.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.api.PasswordHash")
+@Label("Password Hash")
+@Description("BCrypt encode or verify")
+@Category({ "SecureFromScratch API", "Security" })
+@Enabled(false)
+@StackTrace(false)
+public class PasswordHashEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("encode or matches")
+    String operation;
+
+    @Label("Matched")
+    boolean matched;
+
+    public void finish(String operation, boolean matched) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.matched = matched;
+            commit();
+        }
+    }
+}
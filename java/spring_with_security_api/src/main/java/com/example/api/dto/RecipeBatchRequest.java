@@ -0,0 +1,20 @@
+package com.example.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Batch fetch request DTO (POST variant for id lists too long for a query string)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeBatchRequest {
+
+    @NotEmpty(message = "At least one id is required")
+    private List<Long> ids;
+}
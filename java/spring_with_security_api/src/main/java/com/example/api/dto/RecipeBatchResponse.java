@@ -0,0 +1,20 @@
+package com.example.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Batch fetch response DTO: recipes in request order, plus the ids that were not found
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeBatchResponse {
+
+    private List<RecipeResponse> recipes;
+
+    private List<Long> missingIds;
+}
@@ -0,0 +1,28 @@
+package com.example.api.dto;
+
+import com.example.api.models.Recipe.RecipeStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Bulk status request DTO: target either an explicit id list or a filter (fromStatus [+ createdBefore])
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeBulkStatusRequest {
+
+    @NotNull(message = "Target status is required")
+    private RecipeStatus status;
+
+    private List<Long> ids;
+
+    private RecipeStatus fromStatus;
+
+    private LocalDateTime createdBefore;
+}
@@ -0,0 +1,29 @@
+package com.example.api.dto;
+
+import com.example.api.models.Recipe.RecipeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// Bulk status response DTO; results is only filled for id-list requests
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeBulkStatusResponse {
+
+    private RecipeStatus status;
+
+    private int updated;
+
+    private Map<Long, Outcome> results;
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-registered meters for the upload, URL-import and login hot paths.
+ *
+ * Every tag combination is registered up front, so recording is a plain
+ * field read plus {@code Timer.record} - no registry lookup or tag
+ * allocation per call. Callers pass a {@code System.nanoTime()} start value.
+ */
+@Component
+public class ApiMetrics {
+
+    public enum Outcome { SUCCESS, REJECTED, ERROR }
+
+    public enum LoginOutcome { SUCCESS, UNKNOWN_USER, DISABLED, BAD_PASSWORD }
+
+    private final Map<Outcome, Timer> fileUploadTimers;
+    private final Map<Outcome, Timer> urlUploadTimers;
+    private final Map<Outcome, Timer> fetchTimers;
+    private final Map<LoginOutcome, Timer> loginTimers;
+    private final DistributionSummary fileUploadBytes;
+    private final DistributionSummary urlUploadBytes;
+    private final DistributionSummary fetchBytes;
+    private final Timer passwordVerifyTimer;
+    private final Counter loginFailures;
+
+    public ApiMetrics(MeterRegistry registry) {
+        this.fileUploadTimers = timers(registry, Outcome.class, "recipe.image.upload", "source", "file",
+                "Recipe image upload (validation and write)");
+        this.urlUploadTimers = timers(registry, Outcome.class, "recipe.image.upload", "source", "url",
+                "Recipe image upload (validation and write)");
+        this.fetchTimers = timers(registry, Outcome.class, "image.fetch", null, null,
+                "Trusted-domain image fetch (DNS, connect, download)");
+        this.loginTimers = timers(registry, LoginOutcome.class, "auth.login", null, null,
+                "Login request handling");
+
+        this.fileUploadBytes = bytes(registry, "recipe.image.upload.size", "source", "file");
+        this.urlUploadBytes = bytes(registry, "recipe.image.upload.size", "source", "url");
+        this.fetchBytes = bytes(registry, "image.fetch.size", null, null);
+
+        this.passwordVerifyTimer = Timer.builder("auth.password.verify")
+                .description("BCrypt password verification")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.loginFailures = Counter.builder("auth.login.failures")
+                .description("Rejected login attempts")
+                .register(registry);
+    }
+
+    public void recordFileUpload(long startNanos, Outcome outcome, long bytes) {
+        record(fileUploadTimers.get(outcome), startNanos);
+        if (outcome == Outcome.SUCCESS) {
+            fileUploadBytes.record(bytes);
+        }
+    }
+
+    public void recordUrlUpload(long startNanos, Outcome outcome, long bytes) {
+        record(urlUploadTimers.get(outcome), startNanos);
+        if (outcome == Outcome.SUCCESS) {
+            urlUploadBytes.record(bytes);
+        }
+    }
+
+    public void recordFetch(long startNanos, Outcome outcome, long bytes) {
+        record(fetchTimers.get(outcome), startNanos);
+        if (outcome == Outcome.SUCCESS) {
+            fetchBytes.record(bytes);
+        }
+    }
+
+    public void recordLogin(long startNanos, LoginOutcome outcome) {
+        record(loginTimers.get(outcome), startNanos);
+        if (outcome != LoginOutcome.SUCCESS) {
+            loginFailures.increment();
+        }
+    }
+
+    public void recordPasswordVerify(long startNanos) {
+        record(passwordVerifyTimer, startNanos);
+    }
+
+    private static void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static <E extends Enum<E>> Map<E, Timer> timers(
+            MeterRegistry registry, Class<E> outcomes, String name,
+            String extraTag, String extraValue, String description) {
+        Map<E, Timer> timers = new EnumMap<>(outcomes);
+        for (E outcome : outcomes.getEnumConstants()) {
+            Timer.Builder builder = Timer.builder(name)
+                    .description(description)
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram();
+            if (extraTag != null) {
+                builder.tag(extraTag, extraValue);
+            }
+            timers.put(outcome, builder.register(registry));
+        }
+        return timers;
+    }
+
+    private static DistributionSummary bytes(MeterRegistry registry, String name, String tag, String value) {
+        DistributionSummary.Builder builder = DistributionSummary.builder(name)
+                .baseUnit("bytes")
+                .publishPercentileHistogram();
+        if (tag != null) {
+            builder.tag(tag, value);
+        }
+        return builder.register(registry);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.api.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Picks the BCrypt strength (log2 rounds) for this host at startup.
+ *
+ * Cost doubles per strength step, so one measurement at the minimum strength
+ * is enough to pick the highest strength whose verification stays within the
+ * target latency. The result is persisted with the host shape and reused until
+ * the target or host changes. Never goes below the previous default of 10.
+ */
+public class BCryptCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCalibrator.class);
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+    private static final int SAMPLES = 3;
+    private static final String PROBE = "calibration-probe-Aa1!";
+
+    private final Path file;
+    private final Duration target;
+    private final boolean recalibrate;
+
+    public BCryptCalibrator(Path file, Duration target, boolean recalibrate) {
+        this.file = file;
+        this.target = target;
+        this.recalibrate = recalibrate;
+    }
+
+    public int resolveStrength() {
+        if (!recalibrate) {
+            Integer stored = load();
+            if (stored != null) {
+                log.info("Using stored BCrypt strength {} from {}", stored, file);
+                return stored;
+            }
+        }
+
+        int strength = calibrate();
+        store(strength);
+        return strength;
+    }
+
+    private int calibrate() {
+        long base = measure(MIN_STRENGTH);
+        int strength = MIN_STRENGTH;
+        long estimate = base;
+        while (strength < MAX_STRENGTH && estimate * 2 <= target.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+        log.info("Calibrated BCrypt strength {}: ~{} ms per verification (target {} ms, strength {} = {} ms)",
+                strength, estimate / 1_000_000, target.toMillis(), MIN_STRENGTH, base / 1_000_000);
+        return strength;
+    }
+
+    // Median verification time in nanoseconds, after one warm-up
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(PROBE);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(PROBE, hash);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private Integer load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            log.warn("Could not read BCrypt calibration {}: {}", file, e.getMessage());
+            return null;
+        }
+        if (!hostShape().equals(props.getProperty("host"))
+                || !Long.toString(target.toMillis()).equals(props.getProperty("target-ms"))) {
+            log.info("BCrypt calibration in {} was made for a different host or target; recalibrating", file);
+            return null;
+        }
+        try {
+            int strength = Integer.parseInt(props.getProperty("strength"));
+            return Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, strength));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed BCrypt calibration {}", file);
+            return null;
+        }
+    }
+
+    private void store(int strength) {
+        Properties props = new Properties();
+        props.setProperty("strength", Integer.toString(strength));
+        props.setProperty("target-ms", Long.toString(target.toMillis()));
+        props.setProperty("host", hostShape());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                props.store(out, "BCrypt calibration " + Instant.now());
+            }
+        } catch (IOException e) {
+            // Not fatal: the next start calibrates again
+            log.warn("Could not persist BCrypt calibration to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String hostShape() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.availableProcessors() + "cpu/" + (rt.maxMemory() >> 20) + "mb";
+    }
+}
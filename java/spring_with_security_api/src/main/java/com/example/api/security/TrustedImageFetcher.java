@@ -22,6 +22,8 @@ import java.util.Set;
 import org.springframework.stereotype.Component;
 
 import com.example.api.config.SecurityProperties;
+import com.example.api.diagnostics.FetchPhaseEvent;
+import com.example.api.metrics.ApiMetrics;
 
 @Component
 public final class TrustedImageFetcher {
@@ -34,7 +36,10 @@ public final class TrustedImageFetcher {
 
     private final OkHttpClient client;
 
-     public TrustedImageFetcher(SecurityProperties props) {
+    private final ApiMetrics metrics;
+
+     public TrustedImageFetcher(SecurityProperties props, ApiMetrics metrics) {
+        this.metrics = metrics;
         this.maxBytes =  props.getMaxUploadBytes(); ;
         //this.trustedDomains = Set.copyOf(props.getTrustedDomains());
         this.trustedDomains = props.getTrustedDomains().stream()
@@ -51,12 +56,33 @@ public final class TrustedImageFetcher {
     }
 
     public byte[] fetchHttpsFromTrustedDomain(String userUrl) {
+        long start = System.nanoTime();
+        try {
+            byte[] bytes = fetch(userUrl);
+            metrics.recordFetch(start, ApiMetrics.Outcome.SUCCESS, bytes.length);
+            return bytes;
+        } catch (IllegalArgumentException e) {
+            // DNS and network failures arrive wrapped around an IOException
+            metrics.recordFetch(start,
+                    e.getCause() instanceof IOException ? ApiMetrics.Outcome.ERROR : ApiMetrics.Outcome.REJECTED, -1);
+            throw e;
+        }
+    }
+
+    private byte[] fetch(String userUrl) {
         URI uri = parseHttpsUrl(userUrl);
 
         String host = requireHost(uri);
         requireTrustedHost(host);
 
-        List<InetAddress> verifiedIps = resolveAndVerifyIps(host);
+        FetchPhaseEvent dns = new FetchPhaseEvent();
+        dns.begin();
+        List<InetAddress> verifiedIps = null;
+        try {
+            verifiedIps = resolveAndVerifyIps(host);
+        } finally {
+            dns.finish("dns", host, 0, verifiedIps != null);
+        }
 
         OkHttpClient pinnedClient = client.newBuilder()
                 .dns(new PinnedDns(host, verifiedIps))
@@ -67,7 +93,19 @@ public final class TrustedImageFetcher {
                 .get()
                 .build();
 
-        try (Response resp = pinnedClient.newCall(req).execute()) {
+        // connect covers TCP, TLS and waiting for response headers
+        FetchPhaseEvent connect = new FetchPhaseEvent();
+        connect.begin();
+        Response response;
+        try {
+            response = pinnedClient.newCall(req).execute();
+        } catch (IOException e) {
+            connect.finish("connect", host, 0, false);
+            throw new IllegalArgumentException("Fetch failed", e);
+        }
+        connect.finish("connect", host, 0, true);
+
+        try (Response resp = response) {
             if (!resp.isSuccessful()) {
                 throw new IllegalArgumentException("Fetch failed with HTTP " + resp.code());
             }
@@ -86,7 +124,14 @@ public final class TrustedImageFetcher {
                 throw new IllegalArgumentException("Empty response body");
             }
 
-            byte[] bytes = resp.body().bytes();
+            FetchPhaseEvent download = new FetchPhaseEvent();
+            download.begin();
+            byte[] bytes = null;
+            try {
+                bytes = resp.body().bytes();
+            } finally {
+                download.finish("download", host, bytes == null ? 0 : bytes.length, bytes != null);
+            }
             if (bytes.length == 0) {
                 throw new IllegalArgumentException("Empty image");
             }
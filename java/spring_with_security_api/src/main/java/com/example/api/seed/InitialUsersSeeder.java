@@ -16,6 +16,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Component
 public class InitialUsersSeeder implements ApplicationRunner {
 
+    // { username, role }
+    private static final List<String[]> SEED_USERS = List.of(
+            new String[] { "QA1", "QA" },
+            new String[] { "QA2", "QA" },
+            new String[] { "DEV1", "DEV" },
+            new String[] { "DEV2", "DEV" },
+            new String[] { "PM1", "PM" },
+            new String[] { "PM2", "PM" });
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
@@ -49,19 +58,18 @@ public class InitialUsersSeeder implements ApplicationRunner {
             return;
         }
 
-        seedIfMissing("QA1", "QA");
-        seedIfMissing("QA2", "QA");
-        seedIfMissing("DEV1", "DEV");
-        seedIfMissing("DEV2", "DEV");
-        seedIfMissing("PM1", "PM");
-        seedIfMissing("PM2", "PM");
-    }
+        // BCrypt is the slow part of seeding, so hash the missing users in parallel
+        List<AppUser> missing = SEED_USERS.stream()
+                .filter(u -> !userRepository.existsByUserNameIgnoreCase(u[0]))
+                .toList()
+                .parallelStream()
+                .map(u -> buildUser(u[0], u[1]))
+                .toList();
 
-    private void seedIfMissing(String username, String role) {
-        if (userRepository.existsByUserNameIgnoreCase(username)) {
-            return;
-        }
+        userRepository.saveAll(missing);
+    }
 
+    private AppUser buildUser(String username, String role) {
         AppUser u = new AppUser();
         u.setUserName(username);
         u.setRoles(role);
@@ -73,6 +81,6 @@ public class InitialUsersSeeder implements ApplicationRunner {
         // If your entity uses password column instead, replace with:
         // u.setPassword(passwordEncoder.encode(defaultPassword));
 
-        userRepository.save(u);
+        return u;
     }
 }
@@ -0,0 +1,120 @@
+package com.example.api.seed;
+
+import static com.example.common.seed.CopyLoader.csv;
+import static com.example.common.seed.CopyLoader.pick;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import com.example.common.seed.CopyLoader;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk-loads synthetic users and recipes for performance testing.
+ *
+ * The rows are written by the shared CopyLoader: parallel COPY streams whose
+ * contents depend only on the seed, so the same seed always produces the same
+ * dataset. Off by default - run once with --app.seed.synthetic.enabled=true.
+ */
+@Component
+public class SyntheticDataSeeder implements ApplicationRunner {
+
+    // Fixed anchor so generated timestamps do not depend on when the seeder runs
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final String[] ROLES = { "USER", "USER", "USER", "QA", "DEV", "PM" };
+    private static final String[] ADJECTIVES = { "Spicy", "Creamy", "Smoky", "Crispy", "Zesty", "Rustic", "Golden", "Hearty" };
+    private static final String[] DISHES = { "Soup", "Curry", "Pasta", "Salad", "Stew", "Tart", "Risotto", "Tacos", "Pie" };
+    private static final String[] INGREDIENTS = { "tomato", "garlic", "basil", "lentils", "chicken", "mushroom",
+            "lemon", "chickpeas", "spinach", "paprika", "ginger", "potato" };
+
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final SyntheticSeedProperties props;
+
+    @Value("${app.seed.default-password}")
+    private String defaultPassword;
+
+    public SyntheticDataSeeder(DataSource dataSource, PasswordEncoder passwordEncoder, SyntheticSeedProperties props) {
+        this.dataSource = dataSource;
+        this.passwordEncoder = passwordEncoder;
+        this.props = props;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!props.isEnabled()) {
+            return;
+        }
+        CopyLoader loader = new CopyLoader(dataSource, props.getWriters(), props.getSeed());
+
+        // One precomputed hash for every synthetic user - they all get the default password,
+        // and hashing millions of passwords individually would dominate the load time
+        String passwordHash = passwordEncoder.encode(defaultPassword);
+
+        loader.seedTable("users", "COPY users (id, username, password, roles, enabled) FROM STDIN WITH (FORMAT csv)",
+                props.getUsers(), 1, (out, id, rnd) -> {
+                    out.append(id).append(',');
+                    csv(out, "synth_" + id);
+                    out.append(',');
+                    csv(out, passwordHash);
+                    out.append(',');
+                    csv(out, pick(rnd, ROLES));
+                    out.append(",true\n");
+                });
+
+        loader.seedTable("recipes",
+                "COPY recipes (id, name, description, status, image_url, created_at, updated_at) FROM STDIN WITH (FORMAT csv)",
+                props.getRecipes(), 2, (out, id, rnd) -> {
+                    LocalDateTime createdAt = EPOCH.minusMinutes(rnd.nextLong(2L * 365 * 24 * 60));
+                    LocalDateTime updatedAt = createdAt.plusMinutes(rnd.nextLong(30L * 24 * 60));
+
+                    out.append(id).append(',');
+                    csv(out, pick(rnd, ADJECTIVES) + " " + pick(rnd, INGREDIENTS) + " " + pick(rnd, DISHES));
+                    out.append(',');
+                    csv(out, description(rnd));
+                    out.append(',');
+                    out.append(recipeStatus(rnd)).append(',');
+                    if (rnd.nextInt(4) == 0) {
+                        csv(out, "/uploads/images/" + new UUID(rnd.nextLong(), rnd.nextLong()) + ".png");
+                    }
+                    out.append(',').append(createdAt).append(',').append(updatedAt).append('\n');
+                });
+    }
+
+    private static String description(SplittableRandom rnd) {
+        StringBuilder sb = new StringBuilder("Combine ");
+        int steps = 2 + rnd.nextInt(4);
+        for (int i = 0; i < steps; i++) {
+            if (i > 0) {
+                sb.append(i == steps - 1 ? " and " : ", ");
+            }
+            sb.append(pick(rnd, INGREDIENTS));
+        }
+        sb.append(". Cook for ").append(10 + rnd.nextInt(80)).append(" minutes and serve ")
+                .append(rnd.nextBoolean() ? "warm." : "chilled.");
+        return sb.toString();
+    }
+
+    private static String recipeStatus(SplittableRandom rnd) {
+        int p = rnd.nextInt(100);
+        if (p < 40) {
+            return "NEW";
+        }
+        if (p < 70) {
+            return "APPROVED";
+        }
+        if (p < 90) {
+            return "PUBLISH";
+        }
+        return p < 97 ? "REJECTED" : "DELETED";
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.api.seed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.seed.synthetic")
+public class SyntheticSeedProperties {
+
+    private boolean enabled = false;
+    private long users = 0;
+    private long recipes = 0;
+    private int writers = Runtime.getRuntime().availableProcessors();
+    private long seed = 42;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public void setUsers(long users) {
+        this.users = users;
+    }
+
+    public long getRecipes() {
+        return recipes;
+    }
+
+    public void setRecipes(long recipes) {
+        this.recipes = recipes;
+    }
+
+    public int getWriters() {
+        return writers;
+    }
+
+    public void setWriters(int writers) {
+        this.writers = writers;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
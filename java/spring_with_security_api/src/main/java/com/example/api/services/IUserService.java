@@ -9,4 +9,5 @@ public interface IUserService {
     AppUser registerFirstAdmin(String userName, String rawPassword);
     Optional<AppUser> findByUserName(String userName);
     boolean verifyPassword(AppUser user, String rawPassword);
+    void upgradePasswordIfNeeded(AppUser user, String rawPassword);
 }
\ No newline at end of file
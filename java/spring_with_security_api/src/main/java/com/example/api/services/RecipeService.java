@@ -1,11 +1,18 @@
 package com.example.api.services;
 
+import com.example.common.audit.AuditLog;
+import com.example.api.dto.RecipeBatchResponse;
+import com.example.api.dto.RecipeBulkStatusRequest;
+import com.example.api.dto.RecipeBulkStatusResponse;
 import com.example.api.dto.RecipeRequest;
 import com.example.api.dto.RecipeResponse;
 import com.example.api.models.Recipe;
 import com.example.api.models.Recipe.RecipeStatus;
 import com.example.api.security.TrustedImageFetcher;
 import com.example.api.data.RecipeRepository;
+import com.example.api.diagnostics.FileIoEvent;
+import com.example.api.diagnostics.ImageValidationEvent;
+import com.example.api.metrics.ApiMetrics;
 import lombok.RequiredArgsConstructor;
 import org.owasp.untrust.boxedpath.BoxedPath;
 import org.owasp.untrust.boxedpath.PathSandbox;
@@ -22,6 +29,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -32,6 +40,8 @@ public class RecipeService {
 
     private final RecipeRepository recipeRepository;
     private final TrustedImageFetcher trustedImageFetcher;
+    private final ApiMetrics metrics;
+    private final AuditLog auditLog;
 
 
     @Value("${app.upload.dir:uploads/images}")
@@ -40,6 +50,14 @@ public class RecipeService {
     @Value("${app.upload.max-size:10485760}") // 10MB default
     private long maxFileSize;
 
+    // Upper bound for a single batch fetch (keeps the IN list and the response bounded)
+    public static final int MAX_BATCH_SIZE = 500;
+
+    // Upper bound for a single bulk status transition by id list
+    public static final int MAX_BULK_STATUS_SIZE = 5000;
+
+    private static final String AUDIT_ENTITY = "recipe";
+
     // Allowed extensions
     private static final Set<String> ALLOWED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp");
 
@@ -64,6 +82,7 @@ public class RecipeService {
                 .build();
 
         Recipe savedRecipe = recipeRepository.save(recipe);
+        auditLog.record(AUDIT_ENTITY, savedRecipe.getId(), "create", auditSummary(savedRecipe));
         return mapToResponse(savedRecipe);
     }
 
@@ -79,6 +98,54 @@ public class RecipeService {
         return mapToResponse(recipe);
     }
 
+    /**
+     * Load many recipes with a single IN query instead of one findById per id.
+     * Duplicate ids are collapsed, the caller's order is preserved and ids
+     * with no matching row are reported back instead of failing the batch.
+     */
+    public RecipeBatchResponse getRecipesByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) {
+                    requested.add(id);
+                }
+            }
+        }
+
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids can be requested at once");
+        }
+
+        if (requested.isEmpty()) {
+            return RecipeBatchResponse.builder()
+                    .recipes(List.of())
+                    .missingIds(List.of())
+                    .build();
+        }
+
+        Map<Long, Recipe> found = new HashMap<>(requested.size() * 2);
+        for (Recipe recipe : recipeRepository.findAllById(requested)) {
+            found.put(recipe.getId(), recipe);
+        }
+
+        List<RecipeResponse> recipes = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            Recipe recipe = found.get(id);
+            if (recipe == null) {
+                missingIds.add(id);
+            } else {
+                recipes.add(mapToResponse(recipe));
+            }
+        }
+
+        return RecipeBatchResponse.builder()
+                .recipes(recipes)
+                .missingIds(missingIds)
+                .build();
+    }
+
     public List<RecipeResponse> getRecipesByStatus(RecipeStatus status) {
         return recipeRepository.findByStatus(status).stream()
                 .map(this::mapToResponse)
@@ -108,6 +175,7 @@ public class RecipeService {
         }
 
         Recipe updatedRecipe = recipeRepository.save(recipe);
+        auditLog.record(AUDIT_ENTITY, id, "update", auditSummary(updatedRecipe));
         return mapToResponse(updatedRecipe);
     }
 
@@ -116,11 +184,86 @@ public class RecipeService {
         Recipe recipe = recipeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + id));
 
+        RecipeStatus previous = recipe.getStatus();
         recipe.setStatus(status);
         Recipe updatedRecipe = recipeRepository.save(recipe);
+        auditLog.record(AUDIT_ENTITY, id, "status", previous + " -> " + status);
         return mapToResponse(updatedRecipe);
     }
 
+    /**
+     * Apply one status transition to many recipes with a single set-based UPDATE.
+     *
+     * Id-list requests lock the targeted rows, update every row not already in the
+     * target status and report a per-id outcome. Filter requests (fromStatus and an
+     * optional createdBefore cut-off) only report the number of updated rows.
+     */
+    @Transactional
+    public RecipeBulkStatusResponse updateRecipeStatusBulk(RecipeBulkStatusRequest request) {
+        RecipeStatus status = request.getStatus();
+        if (status == null) {
+            throw new IllegalArgumentException("Target status is required");
+        }
+
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean hasFilter = request.getFromStatus() != null;
+        if (!hasIds && !hasFilter) {
+            throw new IllegalArgumentException("Specify ids or fromStatus");
+        }
+        if (hasIds && hasFilter) {
+            throw new IllegalArgumentException("Specify either ids or fromStatus, not both");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        if (hasFilter) {
+            LocalDateTime createdBefore = request.getCreatedBefore() != null ? request.getCreatedBefore() : now;
+            int updated = recipeRepository.updateStatusByFilter(request.getFromStatus(), createdBefore, status, now);
+            auditLog.record(AUDIT_ENTITY, null, "bulk-status", request.getFromStatus() + " -> " + status
+                    + " for createdAt < " + createdBefore + ": " + updated + " rows");
+            return RecipeBulkStatusResponse.builder()
+                    .status(status)
+                    .updated(updated)
+                    .build();
+        }
+
+        Set<Long> requested = new LinkedHashSet<>();
+        for (Long id : request.getIds()) {
+            if (id != null) {
+                requested.add(id);
+            }
+        }
+        if (requested.size() > MAX_BULK_STATUS_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_SIZE + " ids can be updated at once");
+        }
+
+        Map<Long, RecipeStatus> current = new HashMap<>(requested.size() * 2);
+        for (RecipeRepository.RecipeStatusView view : recipeRepository.lockStatusesByIdIn(requested)) {
+            current.put(view.getId(), view.getStatus());
+        }
+
+        int updated = current.isEmpty() ? 0 : recipeRepository.updateStatusByIdIn(current.keySet(), status, now);
+
+        Map<Long, RecipeBulkStatusResponse.Outcome> results = new LinkedHashMap<>();
+        for (Long id : requested) {
+            RecipeStatus before = current.get(id);
+            if (before == null) {
+                results.put(id, RecipeBulkStatusResponse.Outcome.NOT_FOUND);
+            } else if (before == status) {
+                results.put(id, RecipeBulkStatusResponse.Outcome.UNCHANGED);
+            } else {
+                results.put(id, RecipeBulkStatusResponse.Outcome.UPDATED);
+                auditLog.record(AUDIT_ENTITY, id, "status", before + " -> " + status + " (bulk)");
+            }
+        }
+
+        return RecipeBulkStatusResponse.builder()
+                .status(status)
+                .updated(updated)
+                .results(results)
+                .build();
+    }
+
     @Transactional
     public RecipeResponse updateRecipeImage(Long id, String imageUrl) {
         Recipe recipe = recipeRepository.findById(id)
@@ -132,6 +275,7 @@ public class RecipeService {
 
         recipe.setImageUrl(imageUrl);
         Recipe updatedRecipe = recipeRepository.save(recipe);
+        auditLog.record(AUDIT_ENTITY, id, "image", imageUrl);
         return mapToResponse(updatedRecipe);
     }
 
@@ -145,27 +289,51 @@ public class RecipeService {
         }
 
         recipeRepository.delete(recipe);
+        auditLog.record(AUDIT_ENTITY, id, "delete", auditSummary(recipe));
     }
 
-    public String uploadImageFromUrl(String url) throws IOException {        
-        byte[] b = trustedImageFetcher.fetchHttpsFromTrustedDomain(url);
-
-        // 1. Validate not empty
-        if (b == null || b.length == 0) {
-            throw new FileStorageException("Cannot upload empty content");
+    public String uploadImageFromUrl(String url) throws IOException {
+        long start = System.nanoTime();
+        try {
+            byte[] b = trustedImageFetcher.fetchHttpsFromTrustedDomain(url);
+            String stored = storeFetchedImage(b);
+            metrics.recordUrlUpload(start, ApiMetrics.Outcome.SUCCESS, b.length);
+            return stored;
+        } catch (IOException e) {
+            metrics.recordUrlUpload(start, ApiMetrics.Outcome.ERROR, -1);
+            throw e;
+        } catch (RuntimeException e) {
+            metrics.recordUrlUpload(start, failureOutcome(e), -1);
+            throw e;
         }
+    }
 
-        // 2. Validate file size
-        if (b.length > maxFileSize) {
-            throw new FileStorageException(
-                    "File size exceeds maximum allowed size of " + (maxFileSize / 1024 / 1024) + "MB");
-        }
+    private String storeFetchedImage(byte[] b) throws IOException {
+        ImageValidationEvent validation = new ImageValidationEvent();
+        validation.begin();
+        String detectedExt = null;
+        boolean accepted = false;
+        try {
+            // 1. Validate not empty
+            if (b == null || b.length == 0) {
+                throw new FileStorageException("Cannot upload empty content");
+            }
+
+            // 2. Validate file size
+            if (b.length > maxFileSize) {
+                throw new FileStorageException(
+                        "File size exceeds maximum allowed size of " + (maxFileSize / 1024 / 1024) + "MB");
+            }
 
-        // 3. Detect extension from magic bytes (ignore URL extension)
-        String detectedExt = detectImageExtensionFromMagicBytes(b);
-        if (detectedExt.isEmpty() || !ALLOWED_EXTENSIONS.contains(detectedExt)) {
-            throw new FileStorageException("Unsupported image type. Allowed: " + ALLOWED_EXTENSIONS);
-        }                
+            // 3. Detect extension from magic bytes (ignore URL extension)
+            detectedExt = detectImageExtensionFromMagicBytes(b);
+            if (detectedExt.isEmpty() || !ALLOWED_EXTENSIONS.contains(detectedExt)) {
+                throw new FileStorageException("Unsupported image type. Allowed: " + ALLOWED_EXTENSIONS);
+            }
+            accepted = true;
+        } finally {
+            validation.finish("url", b == null ? 0 : b.length, detectedExt, accepted);
+        }
 
         // 6. Generate safe filename (UUID)
         String safeFilename = UUID.randomUUID().toString() + "." + detectedExt;
@@ -176,7 +344,15 @@ public class RecipeService {
         Path targetPath = Paths.get(boxedPath.toString());
 
         // 8. Write securely
-        Files.write(targetPath, b, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        FileIoEvent write = new FileIoEvent();
+        write.begin();
+        boolean written = false;
+        try {
+            Files.write(targetPath, b, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            written = true;
+        } finally {
+            write.finish("write", safeFilename, b.length, written);
+        }
 
         // 9. Return safe URL path
         return "/uploads/images/" + safeFilename;
@@ -244,33 +420,59 @@ public class RecipeService {
      * 5. Safe filename generation with UUID
      */
     public String uploadImage(MultipartFile file) {
+        long start = System.nanoTime();
         try {
-            // 1. Validate file size
-            if (file.getSize() > maxFileSize) {
-                throw new FileStorageException(
-                        "File size exceeds maximum allowed size of " + (maxFileSize / 1024 / 1024) + "MB");
-            }
+            String stored = storeImage(file);
+            metrics.recordFileUpload(start, ApiMetrics.Outcome.SUCCESS, file.getSize());
+            return stored;
+        } catch (RuntimeException e) {
+            metrics.recordFileUpload(start, failureOutcome(e), -1);
+            throw e;
+        }
+    }
 
-            // 2. Validate file is not empty
-            if (file.isEmpty()) {
-                throw new FileStorageException("Cannot upload empty file");
-            }
+    // Validation failures are "rejected"; I/O failures (wrapped or not) are "error"
+    private static ApiMetrics.Outcome failureOutcome(RuntimeException e) {
+        return e.getCause() instanceof IOException ? ApiMetrics.Outcome.ERROR : ApiMetrics.Outcome.REJECTED;
+    }
 
-            // 3. Validate original filename exists
-            String originalFilename = file.getOriginalFilename();
-            if (originalFilename == null || originalFilename.trim().isEmpty()) {
-                throw new FileStorageException("Invalid filename");
-            }
+    private String storeImage(MultipartFile file) {
+        try {
+            ImageValidationEvent validation = new ImageValidationEvent();
+            validation.begin();
+            String extension = null;
+            boolean accepted = false;
+            try {
+                // 1. Validate file size
+                if (file.getSize() > maxFileSize) {
+                    throw new FileStorageException(
+                            "File size exceeds maximum allowed size of " + (maxFileSize / 1024 / 1024) + "MB");
+                }
 
-            // 4. Extract and validate file extension
-            String extension = getFileExtension(originalFilename).toLowerCase();
-            if (extension.isEmpty() || !ALLOWED_EXTENSIONS.contains(extension)) {
-                throw new FileStorageException("Invalid file extension. Allowed: " + ALLOWED_EXTENSIONS);
-            }
+                // 2. Validate file is not empty
+                if (file.isEmpty()) {
+                    throw new FileStorageException("Cannot upload empty file");
+                }
+
+                // 3. Validate original filename exists
+                String originalFilename = file.getOriginalFilename();
+                if (originalFilename == null || originalFilename.trim().isEmpty()) {
+                    throw new FileStorageException("Invalid filename");
+                }
+
+                // 4. Extract and validate file extension
+                extension = getFileExtension(originalFilename).toLowerCase();
+                if (extension.isEmpty() || !ALLOWED_EXTENSIONS.contains(extension)) {
+                    throw new FileStorageException("Invalid file extension. Allowed: " + ALLOWED_EXTENSIONS);
+                }
 
-            // 5. Verify magic bytes - check actual file content matches extension
-            if (!verifyMagicBytes(file, extension)) {
-                throw new FileStorageException("File content doesn't match extension. Possible file spoofing attempt.");
+                // 5. Verify magic bytes - check actual file content matches extension
+                if (!verifyMagicBytes(file, extension)) {
+                    throw new FileStorageException("File content doesn't match extension. Possible file spoofing attempt.");
+                }
+                accepted = true;
+            } finally {
+                validation.finish("file", file.getSize(), extension, accepted);
             }
 
             // 6. Create upload directory
@@ -288,8 +490,13 @@ public class RecipeService {
             Path targetPath = Paths.get(boxedPath.toString());
 
             // 9. Write file securely
+            FileIoEvent write = new FileIoEvent();
+            write.begin();
+            long copied = -1;
             try (InputStream is = file.getInputStream()) {
-                Files.copy(is, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                copied = Files.copy(is, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                write.finish("write", safeFilename, Math.max(copied, 0), copied >= 0);
             }
 
             // 10. Return safe URL path
@@ -372,7 +579,14 @@ public class RecipeService {
             // Path filePath = boxedPath.toPath();
             Path filePath = Paths.get(boxedPath.toString());
 
-            Files.deleteIfExists(filePath);
+            FileIoEvent delete = new FileIoEvent();
+            delete.begin();
+            boolean deleted = false;
+            try {
+                deleted = Files.deleteIfExists(filePath);
+            } finally {
+                delete.finish("delete", filename, 0, deleted);
+            }
 
         } catch (IOException e) {
             // Log the error but don't fail the operation
@@ -380,6 +594,10 @@ public class RecipeService {
         }
     }
 
+    private static String auditSummary(Recipe recipe) {
+        return "name=" + recipe.getName() + ", status=" + recipe.getStatus();
+    }
+
     private RecipeResponse mapToResponse(Recipe recipe) {
         return RecipeResponse.builder()
                 .id(recipe.getId())
@@ -1,7 +1,9 @@
 package com.example.api.services;
 
 import com.example.api.data.UserRepository;
+import com.example.api.diagnostics.PasswordHashEvent;
 import com.example.api.models.AppUser;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,10 +15,13 @@ public class UserService implements IUserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameAvailability usernameAvailability;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       UsernameAvailability usernameAvailability) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.usernameAvailability = usernameAvailability;
     }
 
     @Override
@@ -60,8 +65,9 @@ public class UserService implements IUserService {
             throw new IllegalArgumentException("Username must be at least 3 characters long");
         }
 
-        // Alternative: using findByUserName instead of existsByUserName
-        if (userRepository.findByUserName(userName).isPresent()) {
+        // Ignoring case, like the availability check and the unique index on lower(username);
+        // the Bloom filter rules out most new names without a query
+        if (usernameAvailability.mightExist(userName) && userRepository.existsByUserNameIgnoreCase(userName)) {
             throw new IllegalArgumentException("Username already exists");
         }
 
@@ -71,9 +77,18 @@ public class UserService implements IUserService {
         user.setUserName(userName);
         user.setRoles(isAdmin ? "ADMIN,USER" : "USER");
         user.setEnabled(true);
-        user.setPassword(passwordEncoder.encode(rawPassword));
-
-        return userRepository.save(user);
+        user.setPassword(encodePassword(rawPassword));
+
+        AppUser saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // The unique indexes are the final arbiter: a concurrent registration took the name,
+            // possibly in another case
+            throw new IllegalArgumentException("Username already exists");
+        }
+        usernameAvailability.registered(saved.getUserName());
+        return saved;
     }
 
     @Override
@@ -87,11 +102,34 @@ public class UserService implements IUserService {
 
     @Override
     public Optional<AppUser> findByUserName(String userName) {
-        return userRepository.findByUserName(userName);
+        // Usernames are unique ignoring case, so "alice" finds "Alice"
+        return userRepository.findByUserNameIgnoreCase(userName);
     }
 
     @Override
     public boolean verifyPassword(AppUser user, String rawPassword) {
-        return passwordEncoder.matches(rawPassword, user.getPassword());
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        boolean matched = passwordEncoder.matches(rawPassword, user.getPassword());
+        event.finish("matches", matched);
+        return matched;
+    }
+
+    // Call only after verifyPassword succeeded: rehashes with the current calibrated strength
+    @Override
+    @Transactional
+    public void upgradePasswordIfNeeded(AppUser user, String rawPassword) {
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(encodePassword(rawPassword));
+            userRepository.save(user);
+        }
+    }
+
+    private String encodePassword(String rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        String encoded = passwordEncoder.encode(rawPassword);
+        event.finish("encode", false);
+        return encoded;
     }
 }
\ No newline at end of file
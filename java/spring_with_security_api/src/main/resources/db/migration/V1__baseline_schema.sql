@@ -0,0 +1,21 @@
+-- Baseline schema, matching what ddl-auto=update used to create.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate),
+-- so this script only runs against an empty database.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    roles    VARCHAR(255) NOT NULL,
+    enabled  BOOLEAN      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS recipes (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description TEXT,
+    status      VARCHAR(255) NOT NULL,
+    image_url   VARCHAR(255),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
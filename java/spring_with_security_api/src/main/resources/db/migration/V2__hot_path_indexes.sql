@@ -0,0 +1,10 @@
+-- Indexes for the queries the API actually runs.
+
+-- findByStatus, and bulk transitions filtered by status + created_at (status is the leading column)
+CREATE INDEX IF NOT EXISTS idx_recipes_status_created_at ON recipes (status, created_at);
+
+-- "recently updated" ordering
+CREATE INDEX IF NOT EXISTS idx_recipes_updated_at ON recipes (updated_at);
+
+-- existsByUserNameIgnoreCase, queried as lower(username) = lower(:userName)
+CREATE INDEX IF NOT EXISTS idx_users_username_lower ON users (lower(username));
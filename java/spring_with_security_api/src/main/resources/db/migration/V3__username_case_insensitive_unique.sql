@@ -0,0 +1,18 @@
+-- Usernames are unique regardless of case, as the availability check
+-- (UsernameAvailability) and registration (UserService) treat them. Fails if
+-- existing rows differ only in case; rename those first.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_username_lower ON users (lower(username));
+
+-- Superseded by the unique index, which serves the same lookups
+DROP INDEX IF EXISTS idx_users_username_lower;
+
+-- Version stamps for in-memory caches. Registrations bump 'usernames'; every node
+-- polls it and rebuilds its username filter when it moves.
+CREATE TABLE IF NOT EXISTS reference_data_version (
+    name    VARCHAR(64) PRIMARY KEY,
+    version BIGINT      NOT NULL
+);
+
+INSERT INTO reference_data_version (name, version)
+VALUES ('usernames', 0)
+ON CONFLICT (name) DO NOTHING;